@@ -1,45 +1,55 @@
 package ru.practicum.shareit.booking;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, GatewayResponseCache cache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                cache,
+                API_PREFIX
         );
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size,
+                                              LocalDateTime afterStart, Long afterId) {
+        return getPage("", userId, state, from, size, afterStart, afterId);
     }
 
 
     public ResponseEntity<Object> bookItem(long userId, BookItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+        return invalidateOnSuccess(post("", userId, requestDto),
+                "/items/" + requestDto.getItemId(), "/items/search");
+    }
+
+    public ResponseEntity<Object> bookItems(long userId, List<BookItemRequestDto> requestDtos) {
+        return invalidateOnSuccess(post("/batch", userId, requestDtos), "/items");
     }
 
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
@@ -47,11 +57,27 @@ public class BookingClient extends BaseClient {
     }
 
     public ResponseEntity<Object> confirmBooking(long userId, long bookingId, Boolean approved) {
-        return patch("/" + bookingId + "?approved=" + approved, userId, null);
+        return invalidateOnSuccess(patch("/" + bookingId + "?approved=" + approved, userId, null), "/items");
     }
 
-    public ResponseEntity<Object> getAllBookingsForOwner(long userId, BookingState state) {
-        Map<String, Object> parameters = Map.of("state", state.name());
-        return get("/owner?state={state}", userId, parameters);
+    public ResponseEntity<Object> getAllBookingsForOwner(long userId, BookingState state, Integer from, Integer size,
+                                                         LocalDateTime afterStart, Long afterId) {
+        return getPage("/owner", userId, state, from, size, afterStart, afterId);
+    }
+
+    private ResponseEntity<Object> getPage(String path, long userId, BookingState state, Integer from, Integer size,
+                                           LocalDateTime afterStart, Long afterId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "state", state.name(),
+                "from", from,
+                "size", size
+        ));
+        String query = "?state={state}&from={from}&size={size}";
+        if (afterStart != null && afterId != null) {
+            parameters.put("afterStart", afterStart);
+            parameters.put("afterId", afterId);
+            query += "&afterStart={afterStart}&afterId={afterId}";
+        }
+        return get(path + query, userId, parameters);
     }
 }
@@ -1,22 +1,52 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
-import org.springframework.http.HttpEntity;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestClient;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.util.UriComponentsBuilder;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+    static final List<String> CONDITIONAL_HEADERS = List.of(HttpHeaders.IF_NONE_MATCH,
+            HttpHeaders.IF_MODIFIED_SINCE);
+    private static final List<String> NOT_MODIFIED_HEADERS = List.of(HttpHeaders.ETAG, HttpHeaders.LAST_MODIFIED,
+            HttpHeaders.CACHE_CONTROL, HttpHeaders.EXPIRES, HttpHeaders.VARY, HttpHeaders.AGE, "X-Cache");
+
     protected final RestTemplate rest;
+    private final RestClient client;
+    private final GatewayResponseCache cache;
+    private final String cachePrefix;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null, "");
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable GatewayResponseCache cache, String cachePrefix) {
         this.rest = rest;
+        this.client = RestClient.create(rest);
+        this.cache = cache;
+        this.cachePrefix = cachePrefix;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -31,6 +61,31 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<Object> cachedGet(String path, Long userId, @Nullable Map<String, Object> parameters,
+                                               boolean userSpecific) {
+        if (cache == null || !cache.isEnabled()) {
+            return get(path, userId, parameters);
+        }
+        String key = cachePrefix + UriComponentsBuilder.fromUriString(path).encode()
+                .buildAndExpand(parameters != null ? parameters : Map.of()).toUriString()
+                + (userSpecific ? "#" + userId : "");
+        return notModifiedIfUnchanged(cache.get(key, () -> fetch(path, userId, parameters)));
+    }
+
+    protected ResponseEntity<Object> invalidateOnSuccess(ResponseEntity<Object> response, String... paths) {
+        if (cache != null && response.getStatusCode().is2xxSuccessful()) {
+            cache.invalidate(paths);
+        }
+        return response;
+    }
+
+    protected ResponseEntity<Object> clearOnSuccess(ResponseEntity<Object> response) {
+        if (cache != null && response.getStatusCode().is2xxSuccessful()) {
+            cache.clear();
+        }
+        return response;
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -80,22 +135,28 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        RestClient.RequestBodySpec request = client.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)));
+        if (method == HttpMethod.GET) {
+            request.headers(headers -> headers.addAll(conditionalHeaders()));
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        if (body != null) {
+            request.body(body);
+        }
+        return request.exchange((serverRequest, serverResponse) -> passThrough(serverResponse), false);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    private ResponseEntity<byte[]> fetch(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return client.get()
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(defaultHeaders(userId)))
+                .exchange((serverRequest, serverResponse) -> ResponseEntity.status(serverResponse.getStatusCode())
+                        .headers(passThroughHeaders(serverResponse.getHeaders()))
+                        .body(StreamUtils.copyToByteArray(serverResponse.getBody())));
+    }
+
+    static HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
@@ -105,17 +166,79 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
+    private static HttpHeaders conditionalHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            HttpServletRequest request = attributes.getRequest();
+            for (String name : CONDITIONAL_HEADERS) {
+                Collections.list(request.getHeaders(name)).forEach(value -> headers.add(name, value));
+            }
+        }
+        return headers;
+    }
+
+    private static ResponseEntity<Object> notModifiedIfUnchanged(ResponseEntity<Object> response) {
+        HttpHeaders conditional = conditionalHeaders();
+        if (!response.getStatusCode().isSameCodeAs(HttpStatus.OK) || conditional.isEmpty()) {
+            return response;
+        }
+
+        HttpHeaders headers = response.getHeaders();
+        boolean notModified;
+        if (conditional.containsKey(HttpHeaders.IF_NONE_MATCH)) {
+            String etag = headers.getETag();
+            notModified = etag != null && conditional.getIfNoneMatch().stream()
+                    .anyMatch(tag -> tag.equals("*") || weakTag(tag).equals(weakTag(etag)));
+        } else {
+            long lastModified = headers.getLastModified();
+            notModified = lastModified >= 0 && lastModified / 1000 <= conditional.getIfModifiedSince() / 1000;
+        }
+        if (!notModified) {
             return response;
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        HttpHeaders notModifiedHeaders = new HttpHeaders();
+        NOT_MODIFIED_HEADERS.stream()
+                .filter(headers::containsKey)
+                .forEach(name -> notModifiedHeaders.addAll(name, headers.get(name)));
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).headers(notModifiedHeaders).build();
+    }
+
+    private static String weakTag(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    static HttpHeaders passThroughHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
+    private static ResponseEntity<Object> passThrough(ClientHttpResponse response) throws IOException {
+        HttpHeaders headers = passThroughHeaders(response.getHeaders());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode()).headers(headers);
+
+        if (!hasBody(response.getStatusCode(), headers)) {
+            response.close();
+            return responseBuilder.build();
+        }
+
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes != null) {
+            requestAttributes.registerDestructionCallback(
+                    ClientHttpResponse.class.getName() + "@" + System.identityHashCode(response),
+                    response::close, RequestAttributes.SCOPE_REQUEST);
         }
+        return responseBuilder.body(new InputStreamResource(response.getBody()));
+    }
 
-        return responseBuilder.build();
+    static boolean hasBody(HttpStatusCode status, HttpHeaders headers) {
+        return headers.getContentLength() != 0
+                && !status.isSameCodeAs(HttpStatus.NO_CONTENT)
+                && !status.isSameCodeAs(HttpStatus.NOT_MODIFIED);
     }
 }
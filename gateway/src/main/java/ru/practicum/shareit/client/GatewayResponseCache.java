@@ -0,0 +1,190 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Slf4j
+public class GatewayResponseCache implements MeterBinder, DisposableBean {
+    private static final String CACHE_STATUS_HEADER = "X-Cache";
+
+    private final boolean enabled;
+    private final OffHeapResponseStore store;
+    private final long maxEntrySize;
+    private final long ttlNanos;
+    private final long staleNanos;
+
+    private final Set<String> revalidating = ConcurrentHashMap.newKeySet();
+    private final ExecutorService revalidator;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public GatewayResponseCache(@Value("${shareit-gateway.cache.enabled:true}") boolean enabled,
+                                @Value("${shareit-gateway.cache.capacity:64MB}") DataSize capacity,
+                                @Value("${shareit-gateway.cache.block-size:4KB}") DataSize blockSize,
+                                @Value("${shareit-gateway.cache.max-entry-size:1MB}") DataSize maxEntrySize,
+                                @Value("${shareit-gateway.cache.ttl:5s}") Duration ttl,
+                                @Value("${shareit-gateway.cache.stale-while-revalidate:30s}") Duration staleWhileRevalidate,
+                                @Value("${shareit-gateway.cache.revalidate-threads:2}") int revalidateThreads) {
+        this.enabled = enabled;
+        this.store = new OffHeapResponseStore(enabled ? capacity.toBytes() : 0, (int) blockSize.toBytes());
+        this.maxEntrySize = maxEntrySize.toBytes();
+        this.ttlNanos = ttl.toNanos();
+        this.staleNanos = ttl.plus(staleWhileRevalidate).toNanos();
+        this.revalidator = Executors.newFixedThreadPool(revalidateThreads, Thread.ofPlatform()
+                .name("gateway-cache-revalidate-", 0).daemon().factory());
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public ResponseEntity<Object> get(String key, Supplier<ResponseEntity<byte[]>> loader) {
+        OffHeapResponseStore.StoredResponse stored = store.get(key);
+        if (stored != null) {
+            long age = System.nanoTime() - stored.storedAt();
+            if (age < ttlNanos) {
+                hits.incrementAndGet();
+                return toEntity(stored.data(), "HIT", age);
+            }
+            if (age < staleNanos) {
+                staleHits.incrementAndGet();
+                revalidate(key, loader);
+                return toEntity(stored.data(), "STALE", age);
+            }
+        }
+        misses.incrementAndGet();
+        ResponseEntity<byte[]> response = load(key, loader);
+        return ResponseEntity.status(response.getStatusCode())
+                .headers(response.getHeaders())
+                .header(CACHE_STATUS_HEADER, "MISS")
+                .body(response.getBody());
+    }
+
+    public void invalidate(String... paths) {
+        for (String path : paths) {
+            store.invalidate(path);
+        }
+    }
+
+    public void clear() {
+        store.clear();
+    }
+
+    private void revalidate(String key, Supplier<ResponseEntity<byte[]>> loader) {
+        if (!revalidating.add(key)) {
+            return;
+        }
+        try {
+            revalidator.execute(() -> {
+                try {
+                    load(key, loader);
+                } catch (RuntimeException e) {
+                    log.warn("Не удалось обновить закэшированный ответ {}: {}", key, e.getMessage());
+                } finally {
+                    revalidating.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            revalidating.remove(key);
+        }
+    }
+
+    private ResponseEntity<byte[]> load(String key, Supplier<ResponseEntity<byte[]>> loader) {
+        long generation = store.generation();
+        ResponseEntity<byte[]> response = loader.get();
+        byte[] body = response.getBody();
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.OK) && body != null && body.length <= maxEntrySize) {
+            store.put(key, serialize(response.getHeaders(), body), System.nanoTime(), generation);
+        }
+        return response;
+    }
+
+    private static byte[] serialize(HttpHeaders headers, byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(body.length + 256);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(headers.size());
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeInt(header.getValue().size());
+                for (String value : header.getValue()) {
+                    out.writeUTF(value);
+                }
+            }
+            out.writeInt(body.length);
+            out.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ResponseEntity<Object> toEntity(byte[] data, String cacheStatus, long ageNanos) {
+        HttpHeaders headers = new HttpHeaders();
+        byte[] body;
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int headerCount = in.readInt();
+            for (int i = 0; i < headerCount; i++) {
+                String name = in.readUTF();
+                int valueCount = in.readInt();
+                for (int j = 0; j < valueCount; j++) {
+                    headers.add(name, in.readUTF());
+                }
+            }
+            body = in.readNBytes(in.readInt());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        headers.remove(HttpHeaders.DATE);
+        headers.set(HttpHeaders.AGE, String.valueOf(Duration.ofNanos(ageNanos).toSeconds()));
+        headers.set(CACHE_STATUS_HEADER, cacheStatus);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.gateway.cache.entries", store, OffHeapResponseStore::size).register(registry);
+        Gauge.builder("shareit.gateway.cache.used", store, OffHeapResponseStore::usedBytes)
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("shareit.gateway.cache.capacity", store, OffHeapResponseStore::capacityBytes)
+                .baseUnit("bytes").register(registry);
+        Map.of("hit", hits, "stale", staleHits, "miss", misses).forEach((result, counter) ->
+                FunctionCounter.builder("shareit.gateway.cache.requests", counter, AtomicLong::get)
+                        .tag("result", result).register(registry));
+    }
+
+    @Override
+    public void destroy() {
+        revalidator.shutdownNow();
+    }
+}
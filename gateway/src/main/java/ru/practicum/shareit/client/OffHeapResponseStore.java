@@ -0,0 +1,190 @@
+package ru.practicum.shareit.client;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+class OffHeapResponseStore {
+    private final ByteBuffer arena;
+    private final int blockSize;
+    private final int[] freeBlocks;
+    private int freeCount;
+    private long generation;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LinkedHashMap<String, Entry> lru = new LinkedHashMap<>();
+    private final NavigableMap<String, Entry> keys = new TreeMap<>();
+
+    OffHeapResponseStore(long capacity, int blockSize) {
+        int blocks = (int) Math.min(capacity / blockSize, Integer.MAX_VALUE / blockSize);
+        this.arena = ByteBuffer.allocateDirect(blocks * blockSize);
+        this.blockSize = blockSize;
+        this.freeBlocks = new int[blocks];
+        for (int i = 0; i < blocks; i++) {
+            freeBlocks[i] = blocks - 1 - i;
+        }
+        this.freeCount = blocks;
+    }
+
+    StoredResponse get(String key) {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            Entry entry = lru.get(key);
+            if (entry == null) {
+                return null;
+            }
+            entry.referenced = true;
+            byte[] data = new byte[entry.length];
+            for (int i = 0, offset = 0; offset < entry.length; i++, offset += blockSize) {
+                arena.get(entry.blocks[i] * blockSize, data, offset, Math.min(blockSize, entry.length - offset));
+            }
+            return new StoredResponse(data, entry.storedAt);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    boolean put(String key, byte[] data, long storedAt, long expectedGeneration) {
+        int needed = (data.length + blockSize - 1) / blockSize;
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            if (expectedGeneration != generation || needed > freeBlocks.length) {
+                return false;
+            }
+            remove(key);
+            evict(needed);
+
+            int[] blocks = new int[needed];
+            for (int i = 0, offset = 0; i < needed; i++, offset += blockSize) {
+                blocks[i] = freeBlocks[--freeCount];
+                arena.put(blocks[i] * blockSize, data, offset, Math.min(blockSize, data.length - offset));
+            }
+            Entry entry = new Entry(key, blocks, data.length, storedAt);
+            lru.put(key, entry);
+            keys.put(key, entry);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void invalidate(String path) {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            generation++;
+            remove(path);
+            for (char separator : new char[]{'/', '?', '#'}) {
+                String prefix = path + separator;
+                Map<String, Entry> matched = keys.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+                matched.values().forEach(entry -> {
+                    lru.remove(entry.key);
+                    release(entry);
+                });
+                matched.clear();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    void clear() {
+        Lock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            generation++;
+            lru.values().forEach(this::release);
+            lru.clear();
+            keys.clear();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    long generation() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return generation;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    int size() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return lru.size();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    long usedBytes() {
+        Lock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return (long) (freeBlocks.length - freeCount) * blockSize;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    long capacityBytes() {
+        return (long) freeBlocks.length * blockSize;
+    }
+
+    private void evict(int needed) {
+        while (freeCount < needed && !lru.isEmpty()) {
+            Map.Entry<String, Entry> eldest = lru.pollFirstEntry();
+            Entry entry = eldest.getValue();
+            if (entry.referenced) {
+                entry.referenced = false;
+                lru.putLast(eldest.getKey(), entry);
+            } else {
+                keys.remove(entry.key);
+                release(entry);
+            }
+        }
+    }
+
+    private void remove(String key) {
+        Entry entry = lru.remove(key);
+        if (entry != null) {
+            keys.remove(key);
+            release(entry);
+        }
+    }
+
+    private void release(Entry entry) {
+        for (int block : entry.blocks) {
+            freeBlocks[freeCount++] = block;
+        }
+    }
+
+    record StoredResponse(byte[] data, long storedAt) {
+    }
+
+    private static final class Entry {
+        final String key;
+        final int[] blocks;
+        final int length;
+        final long storedAt;
+        volatile boolean referenced;
+
+        Entry(String key, int[] blocks, int length, long storedAt) {
+            this.key = key;
+            this.blocks = blocks;
+            this.length = length;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.client;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.filter.reactive.ServerWebExchangeContextFilter;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+public class ReactiveBaseClient {
+    protected final WebClient web;
+
+    public ReactiveBaseClient(WebClient web) {
+        this.web = web;
+    }
+
+    public static Mono<ResponseEntity<Flux<DataBuffer>>> emptyList() {
+        DataBuffer body = DefaultDataBufferFactory.sharedInstance.wrap("[]".getBytes(StandardCharsets.UTF_8));
+        return Mono.just(ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(Flux.just(body)));
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, T body) {
+        return post(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, long userId, T body) {
+        return post(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, T body) {
+        return patch(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path) {
+        return delete(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+
+    private <T> Mono<ResponseEntity<Flux<DataBuffer>>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        return Mono.deferContextual(context -> {
+            WebClient.RequestBodySpec request = web.method(method)
+                    .uri(path, parameters != null ? parameters : Map.of())
+                    .headers(headers -> headers.addAll(BaseClient.defaultHeaders(userId)));
+            if (method == HttpMethod.GET) {
+                request.headers(headers -> headers.addAll(conditionalHeaders(context)));
+            }
+            WebClient.RequestHeadersSpec<?> spec = body != null ? request.bodyValue(body) : request;
+            return spec.retrieve()
+                    .onStatus(status -> true, response -> Mono.empty())
+                    .toEntityFlux(DataBuffer.class)
+                    .flatMap(ReactiveBaseClient::passThrough);
+        });
+    }
+
+    private static HttpHeaders conditionalHeaders(ContextView context) {
+        HttpHeaders headers = new HttpHeaders();
+        ServerWebExchangeContextFilter.getExchange(context).ifPresent(exchange -> {
+            HttpHeaders requestHeaders = exchange.getRequest().getHeaders();
+            for (String name : BaseClient.CONDITIONAL_HEADERS) {
+                List<String> values = requestHeaders.get(name);
+                if (values != null) {
+                    headers.addAll(name, values);
+                }
+            }
+        });
+        return headers;
+    }
+
+    private static Mono<ResponseEntity<Flux<DataBuffer>>> passThrough(ResponseEntity<Flux<DataBuffer>> response) {
+        HttpHeaders headers = BaseClient.passThroughHeaders(response.getHeaders());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode()).headers(headers);
+        Flux<DataBuffer> body = response.getBody() != null ? response.getBody() : Flux.empty();
+
+        if (!BaseClient.hasBody(response.getStatusCode(), headers)) {
+            return body.doOnNext(DataBufferUtils::release).then(Mono.fromSupplier(responseBuilder::build));
+        }
+        return Mono.just(responseBuilder.body(body));
+    }
+}
@@ -2,55 +2,113 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.GatewayResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, GatewayResponseCache cache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(() -> new HttpComponentsClientHttpRequestFactory())
-                        .build()
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                cache,
+                API_PREFIX
         );
     }
 
     public ResponseEntity<Object> create(ItemDto itemDto, Long userId) {
-        return post("", userId, itemDto);
+        ResponseEntity<Object> response = post("", userId, itemDto);
+        if (itemDto.getRequestId() != null) {
+            return invalidateOnSuccess(response, API_PREFIX + "/search", "/requests/" + itemDto.getRequestId());
+        }
+        return invalidateOnSuccess(response, API_PREFIX + "/search");
+    }
+
+    public ResponseEntity<Object> createAll(List<ItemDto> itemDtos, Long userId) {
+        return invalidateOnSuccess(post("/batch", userId, itemDtos), API_PREFIX + "/search", "/requests");
     }
 
     public ResponseEntity<Object> update(ItemDto itemDto, Long itemId, Long userId) {
-        return patch("/" + itemId, userId, itemDto);
+        return invalidateOnSuccess(patch("/" + itemId, userId, itemDto),
+                API_PREFIX + "/" + itemId, API_PREFIX + "/search", "/requests");
     }
 
     public ResponseEntity<Object> get(Long itemId, Long userId) {
-        return get("/" + itemId, userId);
+        return cachedGet("/" + itemId, userId, null, false);
+    }
+
+    public ResponseEntity<Object> getFreeSlots(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/free-slots?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getItemsByOwner(Long userId, Integer from, Integer size, Long afterId) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
+                "from", from,
+                "size", size
+        ));
+        String query = "?from={from}&size={size}";
+        if (afterId != null) {
+            parameters.put("afterId", afterId);
+            query += "&afterId={afterId}";
+        }
+        return get(query, userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemsByOwner(Long userId) {
-        return get("/search?owner={}" + userId);
+    public ResponseEntity<Object> search(Long userId, String text, Boolean fuzzy, Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "fuzzy", fuzzy,
+                "from", from,
+                "size", size
+        );
+        return cachedGet("/search?text={text}&fuzzy={fuzzy}&from={from}&size={size}", userId, parameters, false);
+    }
+
+    public ResponseEntity<Object> searchFree(Long userId, String text, LocalDateTime start, LocalDateTime end,
+                                             Integer from, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
+        );
+        return cachedGet("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters, false);
     }
 
-    public ResponseEntity<Object> search(Long userId, String text) {
+    public ResponseEntity<Object> suggest(Long userId, String prefix, Integer size) {
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "prefix", prefix,
+                "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return get("/suggest?prefix={prefix}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> createComment(Long userId, CommentDto commentDto, Long itemId) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+        return invalidateOnSuccess(post("/" + itemId + "/comment", userId, commentDto), API_PREFIX + "/" + itemId);
     }
 }
@@ -1,10 +1,17 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
+import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,15 +19,20 @@ import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.List;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
 public class ItemController {
 
+    private static final int BATCH_MAX_SIZE = 5000;
+
     private final ItemClient itemClient;
 
     @PostMapping
@@ -31,6 +43,14 @@ public class ItemController {
         return itemClient.create(itemDto, userId);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> createItems(
+            @RequestBody @NotEmpty @Size(max = BATCH_MAX_SIZE) List<@Valid ItemDto> itemDtos,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Пакетное создание {} вещей пользователем с ID {}", itemDtos.size(), userId);
+        return itemClient.createAll(itemDtos, userId);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<Object> updateItem(
             @PathVariable Long itemId,
@@ -48,21 +68,60 @@ public class ItemController {
         return itemClient.get(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/free-slots")
+    public ResponseEntity<Object> getFreeSlots(
+            @PathVariable @NotNull Long itemId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Получение свободных интервалов вещи с ID {} c {} по {} пользователем с ID {}",
+                itemId, from, to, userId);
+        periodValid(from, to);
+        return itemClient.getFreeSlots(userId, itemId, from, to);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getItemsByOwner(
-            @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return itemClient.getItemsByOwner(userId);
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @PositiveOrZero @RequestParam(name = "afterId", required = false) Long afterId) {
+        log.info("Получение вещей владельца с ID {}, from={}, size={}, afterId={}", userId, from, size, afterId);
+        return itemClient.getItemsByOwner(userId, from, size, afterId);
     }
 
     @GetMapping("/search")
     public ResponseEntity<Object> searchItems(
             @RequestParam("text") String text,
+            @RequestParam(name = "fuzzy", defaultValue = "false") Boolean fuzzy,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
             @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
-        log.info("Поиск вещей с текстом '{}' пользователем с ID {}", text, userId);
+        log.info("Поиск вещей с текстом '{}' пользователем с ID {}, from={}, size={}", text, userId, from, size);
+        periodValid(start, end);
         if (text.isBlank()) {
             return ResponseEntity.ok(Collections.emptyList());
         }
-        return itemClient.search(userId, text);
+        if (start != null) {
+            return itemClient.searchFree(userId, text, start, end, from, size);
+        }
+        return itemClient.search(userId, text, fuzzy, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItemNames(
+            @RequestParam("prefix") String prefix,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Подсказки названий вещей по префиксу '{}' для пользователя с ID {}", prefix, userId);
+        if (prefix.isBlank()) {
+            return ResponseEntity.ok(Collections.emptyList());
+        }
+        return itemClient.suggest(userId, prefix, size);
     }
 
     @PostMapping("/{itemId}/comment")
@@ -73,4 +132,16 @@ public class ItemController {
         log.info("Добавление комментария к вещи {} пользователем {}", itemId, userId);
         return itemClient.createComment(userId, dto, itemId);
     }
+
+    static void periodValid(LocalDateTime start, LocalDateTime end) {
+        if (start == null && end == null) {
+            return;
+        }
+        if (start == null || end == null) {
+            throw new ValidationException("Для поиска свободных вещей нужно указать начало и конец периода");
+        }
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Конец периода не может быть раньше начала или равен ему");
+        }
+    }
 }
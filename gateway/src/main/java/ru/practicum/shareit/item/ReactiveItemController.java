@@ -0,0 +1,137 @@
+package ru.practicum.shareit.item;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(path = "/items")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveItemController {
+
+    private static final int BATCH_MAX_SIZE = 5000;
+
+    private final ReactiveItemClient itemClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(
+            @RequestBody @Valid ItemDto itemDto,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Создание новой вещи: {}", itemDto);
+        return itemClient.create(itemDto, userId);
+    }
+
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItems(
+            @RequestBody @NotEmpty @Size(max = BATCH_MAX_SIZE) List<@Valid ItemDto> itemDtos,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Пакетное создание {} вещей пользователем с ID {}", itemDtos.size(), userId);
+        return itemClient.createAll(itemDtos, userId);
+    }
+
+    @PatchMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(
+            @PathVariable Long itemId,
+            @RequestBody ItemDto itemDto,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Редактирование вещи с ID {} пользователем с ID {}", itemId, userId);
+        return itemClient.update(itemDto, itemId, userId);
+    }
+
+    @GetMapping("/{itemId}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItem(
+            @PathVariable @NotNull Long itemId,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Получение информации о вещи с ID {} пользователем с ID {}", itemId, userId);
+        return itemClient.get(itemId, userId);
+    }
+
+    @GetMapping("/{itemId}/free-slots")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getFreeSlots(
+            @PathVariable @NotNull Long itemId,
+            @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Получение свободных интервалов вещи с ID {} c {} по {} пользователем с ID {}",
+                itemId, from, to, userId);
+        ItemController.periodValid(from, to);
+        return itemClient.getFreeSlots(userId, itemId, from, to);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemsByOwner(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @PositiveOrZero @RequestParam(name = "afterId", required = false) Long afterId) {
+        log.info("Получение вещей владельца с ID {}, from={}, size={}, afterId={}", userId, from, size, afterId);
+        return itemClient.getItemsByOwner(userId, from, size, afterId);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItems(
+            @RequestParam("text") String text,
+            @RequestParam(name = "fuzzy", defaultValue = "false") Boolean fuzzy,
+            @RequestParam(name = "start", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(name = "end", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Поиск вещей с текстом '{}' пользователем с ID {}, from={}, size={}", text, userId, from, size);
+        ItemController.periodValid(start, end);
+        if (text.isBlank()) {
+            return ReactiveBaseClient.emptyList();
+        }
+        if (start != null) {
+            return itemClient.searchFree(userId, text, start, end, from, size);
+        }
+        return itemClient.search(userId, text, fuzzy, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> suggestItemNames(
+            @RequestParam("prefix") String prefix,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId) {
+        log.info("Подсказки названий вещей по префиксу '{}' для пользователя с ID {}", prefix, userId);
+        if (prefix.isBlank()) {
+            return ReactiveBaseClient.emptyList();
+        }
+        return itemClient.suggest(userId, prefix, size);
+    }
+
+    @PostMapping("/{itemId}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createComment(
+            @RequestHeader("X-Sharer-User-Id") @NotNull Long userId,
+            @Valid @RequestBody CommentDto dto,
+            @PathVariable @NotNull Long itemId) {
+        log.info("Добавление комментария к вещи {} пользователем {}", itemId, userId);
+        return itemClient.createComment(userId, dto, itemId);
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+abstract class GatewayContractTest {
+    static final UpstreamStub upstream = UpstreamStub.start();
+
+    @DynamicPropertySource
+    static void upstream(DynamicPropertyRegistry registry) {
+        registry.add("shareit-server.url", upstream::url);
+        registry.add("shareit-gateway.cache.enabled", () -> "false");
+    }
+
+    protected abstract WebTestClient client();
+
+    @BeforeEach
+    void resetUpstream() {
+        upstream.reset();
+    }
+
+    @Test
+    void createItem_invalidBody_badRequestWithoutUpstreamCall() {
+        client().post().uri("/items")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("name", "", "description", "Дрель", "available", true))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertTrue(upstream.requests().isEmpty());
+    }
+
+    @Test
+    void bookItem_endInPast_badRequestWithoutUpstreamCall() {
+        client().post().uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("itemId", 1, "start", LocalDateTime.now().plusDays(1).toString(),
+                        "end", LocalDateTime.now().minusDays(1).toString()))
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertTrue(upstream.requests().isEmpty());
+    }
+
+    @Test
+    void getItemsByOwner_negativeFrom_badRequestWithoutUpstreamCall() {
+        client().get().uri("/items?from=-1&size=10")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isNotEmpty();
+
+        assertTrue(upstream.requests().isEmpty());
+    }
+
+    @Test
+    void getItem_missingUserHeader_badRequestWithoutUpstreamCall() {
+        client().get().uri("/items/1")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertTrue(upstream.requests().isEmpty());
+    }
+
+    @Test
+    void searchItems_startWithoutEnd_badRequestWithoutUpstreamCall() {
+        client().get().uri("/items/search?text=дрель&start=" + LocalDateTime.now().plusDays(1).withNano(0))
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error")
+                .isEqualTo("Для поиска свободных вещей нужно указать начало и конец периода");
+
+        assertTrue(upstream.requests().isEmpty());
+    }
+
+    @Test
+    void getItem_upstreamNotFound_passesBodyAndHeaders() {
+        upstream.respond(404, "{\"error\":\"Вещь с ID 1 не найдена\"}", Map.of("X-Request-Id", "req-1"));
+
+        client().get().uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectHeader().valueEquals("X-Request-Id", "req-1")
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$.error").isEqualTo("Вещь с ID 1 не найдена");
+
+        assertEquals(1, upstream.requests().size());
+        assertEquals("1", upstream.requests().get(0).headers().getFirst("X-Sharer-User-Id"));
+    }
+
+    @Test
+    void getItem_forwardsConditionalHeaders() {
+        upstream.respond(304, "", Map.of("ETag", "\"i-1-3\""));
+
+        client().get().uri("/items/1")
+                .header("X-Sharer-User-Id", "1")
+                .header("If-None-Match", "\"i-1-3\"")
+                .header("If-Modified-Since", "Sun, 18 Oct 2026 10:00:00 GMT")
+                .exchange()
+                .expectStatus().isNotModified()
+                .expectHeader().valueEquals("ETag", "\"i-1-3\"");
+
+        assertEquals("\"i-1-3\"", upstream.requests().get(0).headers().getFirst("If-None-Match"));
+        assertEquals("Sun, 18 Oct 2026 10:00:00 GMT",
+                upstream.requests().get(0).headers().getFirst("If-Modified-Since"));
+    }
+
+    @Test
+    void bookItem_upstreamConflict_passesBody() {
+        upstream.respond(409, "{\"error\":\"Вещь уже забронирована на это время\"}", Map.of());
+
+        client().post().uri("/bookings")
+                .header("X-Sharer-User-Id", "2")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(Map.of("itemId", 1, "start", LocalDateTime.now().plusDays(1).toString(),
+                        "end", LocalDateTime.now().plusDays(2).toString()))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.error").isEqualTo("Вещь уже забронирована на это время");
+
+        assertEquals("POST", upstream.requests().get(0).method());
+        assertEquals("/bookings", upstream.requests().get(0).uri());
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+final class UpstreamStub {
+    private final HttpServer server;
+    private final List<RecordedRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile StubResponse response;
+
+    private UpstreamStub(HttpServer server) {
+        this.server = server;
+        reset();
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    static UpstreamStub start() {
+        try {
+            return new UpstreamStub(HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    void respond(int status, String body, Map<String, String> headers) {
+        response = new StubResponse(status, body, headers);
+    }
+
+    void reset() {
+        requests.clear();
+        respond(200, "{}", Map.of());
+    }
+
+    List<RecordedRequest> requests() {
+        return List.copyOf(requests);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.add(new RecordedRequest(exchange.getRequestMethod(), exchange.getRequestURI().toString(),
+                exchange.getRequestHeaders(),
+                new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+        StubResponse current = response;
+        byte[] body = current.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        current.headers().forEach(exchange.getResponseHeaders()::set);
+        exchange.sendResponseHeaders(current.status(), body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    record RecordedRequest(String method, String uri, Headers headers, String body) {
+    }
+
+    private record StubResponse(int status, String body, Map<String, String> headers) {
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GatewayResponseCacheTest {
+    private static final String KEY = "/items/1";
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private GatewayResponseCache cache = cache(Duration.ofMinutes(1), Duration.ofMinutes(1));
+
+    @AfterEach
+    void tearDown() {
+        cache.destroy();
+    }
+
+    @Test
+    void get_withinTtl_servedFromCache() {
+        assertEquals("MISS", cacheStatus(cache.get(KEY, loader("первый"))));
+
+        ResponseEntity<Object> cached = cache.get(KEY, loader("второй"));
+
+        assertEquals("HIT", cacheStatus(cached));
+        assertEquals("первый", body(cached));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_entryLargerThanMaxEntrySize_notCached() {
+        String large = "x".repeat((int) DataSize.ofKilobytes(2).toBytes());
+
+        cache.get(KEY, loader(large));
+        ResponseEntity<Object> response = cache.get(KEY, loader(large));
+
+        assertEquals("MISS", cacheStatus(response));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_errorResponse_notCached() {
+        Supplier<ResponseEntity<byte[]>> notFound = () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("{}".getBytes(StandardCharsets.UTF_8));
+        };
+
+        cache.get(KEY, notFound);
+        ResponseEntity<Object> response = cache.get(KEY, notFound);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_invalidatedWhileLoading_responseNotStored() {
+        cache.get(KEY, () -> {
+            cache.invalidate(KEY);
+            return loader("устаревший").get();
+        });
+
+        ResponseEntity<Object> response = cache.get(KEY, loader("свежий"));
+
+        assertEquals("MISS", cacheStatus(response));
+        assertEquals("свежий", body(response));
+    }
+
+    @Test
+    void invalidate_siblingPath_keepsEntry() {
+        cache.get(KEY, loader("первый"));
+
+        cache.invalidate("/items/10");
+
+        assertEquals("HIT", cacheStatus(cache.get(KEY, loader("второй"))));
+    }
+
+    @Test
+    void get_afterTtl_servesStaleAndRevalidatesInBackground() throws InterruptedException {
+        cache.destroy();
+        cache = cache(Duration.ofMillis(50), Duration.ofMinutes(1));
+        cache.get(KEY, loader("первый"));
+        Thread.sleep(100);
+
+        CountDownLatch revalidated = new CountDownLatch(1);
+        ResponseEntity<Object> stale = cache.get(KEY, () -> {
+            try {
+                return loader("второй").get();
+            } finally {
+                revalidated.countDown();
+            }
+        });
+
+        assertEquals("STALE", cacheStatus(stale));
+        assertEquals("первый", body(stale));
+        assertTrue(revalidated.await(5, TimeUnit.SECONDS));
+        assertTrue(waitForBody("второй"));
+    }
+
+    private boolean waitForBody(String expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < deadline) {
+            if (expected.equals(body(cache.get(KEY, loader("третий"))))) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    private Supplier<ResponseEntity<byte[]>> loader(String body) {
+        return () -> {
+            loads.incrementAndGet();
+            return ResponseEntity.ok().body(body.getBytes(StandardCharsets.UTF_8));
+        };
+    }
+
+    private static GatewayResponseCache cache(Duration ttl, Duration staleWhileRevalidate) {
+        return new GatewayResponseCache(true, DataSize.ofKilobytes(64), DataSize.ofKilobytes(1),
+                DataSize.ofKilobytes(1), ttl, staleWhileRevalidate, 1);
+    }
+
+    private static String cacheStatus(ResponseEntity<Object> response) {
+        return response.getHeaders().getFirst("X-Cache");
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,144 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapResponseStoreTest {
+    private static final int BLOCK_SIZE = 16;
+
+    private final OffHeapResponseStore store = new OffHeapResponseStore(4 * BLOCK_SIZE, BLOCK_SIZE);
+
+    @Test
+    void put_whenCapacityReached_evictsLeastRecentlyUsed() {
+        put("/items/1", BLOCK_SIZE);
+        put("/items/2", BLOCK_SIZE);
+        put("/items/3", BLOCK_SIZE);
+        put("/items/4", BLOCK_SIZE);
+        store.get("/items/1");
+
+        assertTrue(put("/items/5", 2 * BLOCK_SIZE));
+
+        assertNotNull(store.get("/items/1"));
+        assertNull(store.get("/items/2"));
+        assertNull(store.get("/items/3"));
+        assertNotNull(store.get("/items/4"));
+        assertNotNull(store.get("/items/5"));
+        assertEquals(4L * BLOCK_SIZE, store.usedBytes());
+    }
+
+    @Test
+    void put_entryLargerThanCapacity_rejectedWithoutEvicting() {
+        put("/items/1", BLOCK_SIZE);
+
+        assertFalse(put("/items/2", 4 * BLOCK_SIZE + 1));
+
+        assertNotNull(store.get("/items/1"));
+        assertNull(store.get("/items/2"));
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void put_multiBlockEntry_readBackIntact() {
+        byte[] data = new byte[3 * BLOCK_SIZE - 5];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        store.put("/items/1", data, 42, store.generation());
+
+        OffHeapResponseStore.StoredResponse stored = store.get("/items/1");
+
+        assertArrayEquals(data, stored.data());
+        assertEquals(42, stored.storedAt());
+    }
+
+    @Test
+    void invalidate_removesPathAndChildrenButNotSiblings() {
+        OffHeapResponseStore large = new OffHeapResponseStore(16 * BLOCK_SIZE, BLOCK_SIZE);
+        List<String> removed = List.of("/items/1", "/items/1/free-slots", "/items/1?from=0", "/items/1#7");
+        List<String> kept = List.of("/items/10", "/items/10?from=0", "/items/100/free-slots", "/items/1-copy");
+        removed.forEach(key -> large.put(key, new byte[1], 0, large.generation()));
+        kept.forEach(key -> large.put(key, new byte[1], 0, large.generation()));
+
+        large.invalidate("/items/1");
+
+        removed.forEach(key -> assertNull(large.get(key), key));
+        kept.forEach(key -> assertNotNull(large.get(key), key));
+        assertEquals(kept.size() * (long) BLOCK_SIZE, large.usedBytes());
+    }
+
+    @Test
+    void put_afterConcurrentInvalidate_discarded() {
+        long generation = store.generation();
+        store.invalidate("/items/1");
+
+        assertFalse(store.put("/items/1", new byte[1], 0, generation));
+        assertNull(store.get("/items/1"));
+
+        assertTrue(store.put("/items/1", new byte[1], 0, store.generation()));
+    }
+
+    @Test
+    void put_afterClear_discarded() {
+        long generation = store.generation();
+        put("/items/1", BLOCK_SIZE);
+        store.clear();
+
+        assertFalse(store.put("/items/2", new byte[1], 0, generation));
+        assertEquals(0, store.size());
+        assertEquals(0, store.usedBytes());
+    }
+
+    @Test
+    void concurrentAccess_readsIntactEntriesAndReleasesEveryBlock() throws Exception {
+        OffHeapResponseStore shared = new OffHeapResponseStore(32 * BLOCK_SIZE, BLOCK_SIZE);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 5_000; i++) {
+                    int item = random.nextInt(16);
+                    String key = "/items/" + item;
+                    switch (random.nextInt(10)) {
+                        case 0 -> shared.invalidate(key);
+                        case 1, 2, 3 -> {
+                            byte[] data = new byte[random.nextInt(1, 3 * BLOCK_SIZE)];
+                            Arrays.fill(data, (byte) item);
+                            shared.put(key, data, item, shared.generation());
+                        }
+                        default -> {
+                            OffHeapResponseStore.StoredResponse stored = shared.get(key);
+                            if (stored != null) {
+                                for (byte b : stored.data()) {
+                                    assertEquals(item, b, key);
+                                }
+                            }
+                        }
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        shared.clear();
+        assertEquals(0, shared.usedBytes());
+        assertTrue(shared.put("/items/1", new byte[32 * BLOCK_SIZE], 0, shared.generation()));
+    }
+
+    private boolean put(String key, int length) {
+        return store.put(key, new byte[length], 0, store.generation());
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.booking;
+
+public record BookingChangedEvent(Long itemId, Long bookerId, Long ownerId) {
+}
@@ -1,19 +1,26 @@
 package ru.practicum.shareit.booking;
 
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/bookings")
 @RequiredArgsConstructor
 @Slf4j
+@Validated
 public class BookingController {
     private final BookingService bookingService;
 
@@ -26,6 +33,14 @@ public class BookingController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdBooking);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingDtoOut>> createBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                              @RequestBody List<BookingDto> bookingDtos) {
+        log.info("Пакетное создание {} бронирований пользователем с ID {}", bookingDtos.size(), userId);
+        List<BookingDtoOut> createdBookings = bookingService.createBookings(userId, bookingDtos);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdBookings);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingDtoOut> confirmBooking(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -39,27 +54,38 @@ public class BookingController {
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingDtoOut> getBooking(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @PathVariable Long bookingId) {
+            @PathVariable Long bookingId,
+            WebRequest request) {
         log.info("Получение информации о бронировании: bookingId={}", bookingId);
-        BookingDtoOut booking = bookingService.getBooking(userId, bookingId);
-        return ResponseEntity.ok(booking);
+        return bookingService.getVersionedBooking(userId, bookingId).toResponse(request);
     }
 
     @GetMapping
     public ResponseEntity<List<BookingDtoOut>> getAllBookings(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @RequestParam(defaultValue = "ALL") String state) {
-        log.info("Получение списка бронирований для пользователя: userId={}, state={}", userId, state);
-        List<BookingDtoOut> bookings = bookingService.getAllBookings(userId, state);
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+            @RequestParam(required = false) Long afterId) {
+        log.info("Получение списка бронирований для пользователя: userId={}, state={}, from={}, size={}, after={}/{}",
+                userId, state, from, size, afterStart, afterId);
+        List<BookingDtoOut> bookings = bookingService.getAllBookings(userId, state, from, size, afterStart, afterId);
         return ResponseEntity.ok(bookings);
     }
 
     @GetMapping("/owner")
     public ResponseEntity<List<BookingDtoOut>> getAllBookingsForOwner(
             @RequestHeader("X-Sharer-User-Id") Long userId,
-            @RequestParam(defaultValue = "ALL") String state) {
-        log.info("Получение списка бронирований для владельца: userId={}, state={}", userId, state);
-        List<BookingDtoOut> bookings = bookingService.getAllBookingsForOwner(userId, state);
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime afterStart,
+            @RequestParam(required = false) Long afterId) {
+        log.info("Получение списка бронирований для владельца: userId={}, state={}, from={}, size={}, after={}/{}",
+                userId, state, from, size, afterStart, afterId);
+        List<BookingDtoOut> bookings = bookingService.getAllBookingsForOwner(userId, state, from, size,
+                afterStart, afterId);
         return ResponseEntity.ok(bookings);
     }
 }
\ No newline at end of file
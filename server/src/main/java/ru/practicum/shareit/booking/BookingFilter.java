@@ -0,0 +1,15 @@
+package ru.practicum.shareit.booking;
+
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+public record BookingFilter(Long bookerId,
+                            Long ownerId,
+                            BookingState state,
+                            LocalDateTime now,
+                            LocalDateTime afterStart,
+                            Long afterId,
+                            int from,
+                            int size) {
+}
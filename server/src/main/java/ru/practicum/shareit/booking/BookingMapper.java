@@ -3,18 +3,22 @@ package ru.practicum.shareit.booking;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.dto.BookingSummary;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserMapper;
+import ru.practicum.shareit.user.dto.UserDto;
 
 @UtilityClass
 public class BookingMapper {
     public Booking toEntity(BookingDto dto, Item item, User user) {
         return new Booking(
-                dto.getItemId(),
+                null,
                 item,
                 user,
                 dto.getStart(),
@@ -33,4 +37,41 @@ public class BookingMapper {
                 booking.getStatus()
         );
     }
+
+    public BookingDtoOut toBookingOut(BookingRow row) {
+        return new BookingDtoOut(
+                row.id(),
+                new ItemDto(row.itemId(), row.itemName(), row.itemDescription(), row.itemAvailable(),
+                        null, null, null, null, row.itemRequestId()),
+                row.start(),
+                row.end(),
+                new UserDto(row.bookerId(), row.bookerName(), row.bookerEmail()),
+                row.status()
+        );
+    }
+
+    public BookingDtoOut toBookingOut(BookingSummary summary, ItemDto item) {
+        return new BookingDtoOut(
+                summary.getId(),
+                item,
+                summary.getStartTime(),
+                summary.getEndTime(),
+                new UserDto(summary.getBookerId(), summary.getBookerName(), summary.getBookerEmail()),
+                BookingStatus.valueOf(summary.getStatus())
+        );
+    }
+
+    public BookingDtoOut copy(BookingDtoOut booking) {
+        if (booking == null) {
+            return null;
+        }
+        return new BookingDtoOut(
+                booking.getId(),
+                ItemMapper.copy(booking.getItem()),
+                booking.getStart(),
+                booking.getEnd(),
+                UserMapper.copy(booking.getBooker()),
+                booking.getStatus()
+        );
+    }
 }
@@ -1,33 +1,49 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingSummary;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerId(Long userId, Sort sort);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    @Override
+    @EntityGraph("Booking.withItemAndBooker")
+    Optional<Booking> findById(Long id);
 
-    List<Booking> findByBookerIdAndStatus(Long userId, BookingStatus status, Sort sort);
-
-    List<Booking> findByItemOwnerId(Long userId, Sort sort);
-
-    List<Booking> findByItemOwnerIdAndStatus(Long userId, BookingStatus status, Sort sort);
+    List<Booking> findByItemIdAndStatusInAndEndIsAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                      LocalDateTime end);
 
     List<Booking> findByBookerIdAndEndIsBefore(Long bookerId, LocalDateTime currentDateTime);
 
-    Optional<Booking> findTopByItemIdAndEndBeforeAndStatusOrderByEndDesc(Long itemId, LocalDateTime end, BookingStatus status);
-
-    Optional<Booking> findTopByItemIdAndStartBeforeAndEndAfterOrderByStartAsc(Long itemId, LocalDateTime start, LocalDateTime end);
-
-    @Query("SELECT b FROM Booking b WHERE b.item.id IN :itemIds AND b.status = 'APPROVED' ORDER BY b.start ASC")
-    List<Booking> findAllByItemIdInAndStatusApproved(@Param("itemIds") List<Long> itemIds);
+    @Query("SELECT DISTINCT b.item.id FROM Booking b WHERE b.item.id IN :itemIds AND b.status IN :statuses " +
+            "AND b.start < :end AND b.end > :start")
+    List<Long> findBusyItemIds(@Param("itemIds") Collection<Long> itemIds,
+                               @Param("start") LocalDateTime start,
+                               @Param("end") LocalDateTime end,
+                               @Param("statuses") Collection<BookingStatus> statuses);
+
+    @Query(value = "SELECT b.id AS id, b.item_id AS itemId, b.start_time AS startTime, b.end_time AS endTime, " +
+            "b.status AS status, u.id AS bookerId, u.name AS bookerName, u.email AS bookerEmail, b.kind AS kind " +
+            "FROM (" +
+            "SELECT l.*, 'LAST' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY l.item_id ORDER BY l.end_time DESC, l.id DESC) AS rn " +
+            "FROM bookings l WHERE l.item_id IN (:itemIds) AND l.status = 'APPROVED' AND l.end_time < :now " +
+            "UNION ALL " +
+            "SELECT n.*, 'NEXT' AS kind, " +
+            "ROW_NUMBER() OVER (PARTITION BY n.item_id ORDER BY n.start_time, n.id) AS rn " +
+            "FROM bookings n WHERE n.item_id IN (:itemIds) AND n.status = 'APPROVED' AND n.start_time > :now" +
+            ") b JOIN users u ON u.id = b.booker_id " +
+            "WHERE b.rn = 1", nativeQuery = true)
+    List<BookingSummary> findLastAndNextBookings(@Param("itemIds") Collection<Long> itemIds,
+                                                 @Param("now") LocalDateTime now);
 }
\ No newline at end of file
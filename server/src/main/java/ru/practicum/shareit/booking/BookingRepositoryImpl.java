@@ -0,0 +1,74 @@
+package ru.practicum.shareit.booking;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookingRow> findBookings(BookingFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingRow> query = cb.createQuery(BookingRow.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+        Join<Booking, User> booker = booking.join("booker");
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        Path<Long> id = booking.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.bookerId() != null) {
+            predicates.add(cb.equal(booker.get("id"), filter.bookerId()));
+        }
+        if (filter.ownerId() != null) {
+            predicates.add(cb.equal(item.get("owner").get("id"), filter.ownerId()));
+        }
+        switch (filter.state()) {
+            case CURRENT -> {
+                predicates.add(cb.lessThanOrEqualTo(start, filter.now()));
+                predicates.add(cb.greaterThan(end, filter.now()));
+            }
+            case PAST -> predicates.add(cb.lessThanOrEqualTo(end, filter.now()));
+            case FUTURE -> predicates.add(cb.greaterThan(start, filter.now()));
+            case WAITING -> predicates.add(cb.equal(booking.get("status"), BookingStatus.WAITING));
+            case REJECTED -> predicates.add(cb.equal(booking.get("status"), BookingStatus.REJECTED));
+            default -> {
+            }
+        }
+        if (filter.afterStart() != null && filter.afterId() != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(start, filter.afterStart()),
+                    cb.and(cb.equal(start, filter.afterStart()), cb.lessThan(id, filter.afterId()))));
+        }
+
+        query.select(cb.construct(BookingRow.class,
+                        id, start, end, booking.get("status"),
+                        item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                        item.get("request").get("id"),
+                        booker.get("id"), booker.get("name"), booker.get("email")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(start), cb.desc(id));
+        return entityManager.createQuery(query)
+                .setFirstResult(filter.from())
+                .setMaxResults(filter.size())
+                .getResultList();
+    }
+}
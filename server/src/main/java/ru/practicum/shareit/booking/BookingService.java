@@ -2,17 +2,25 @@ package ru.practicum.shareit.booking;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.version.Versioned;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
     BookingDtoOut createBooking(Long userId, BookingDto bookingDto);
 
+    List<BookingDtoOut> createBookings(Long userId, List<BookingDto> bookingDtos);
+
     BookingDtoOut confirmBooking(Long userId, Long bookingId, Boolean approved);
 
     BookingDtoOut getBooking(Long userId, Long bookingId);
 
-    List<BookingDtoOut> getAllBookings(Long userId, String state);
+    Versioned<BookingDtoOut> getVersionedBooking(Long userId, Long bookingId);
+
+    List<BookingDtoOut> getAllBookings(Long userId, String state, Integer from, Integer size,
+                                       LocalDateTime afterStart, Long afterId);
 
-    List<BookingDtoOut> getAllBookingsForOwner(Long userId, String state);
+    List<BookingDtoOut> getAllBookingsForOwner(Long userId, String state, Integer from, Integer size,
+                                               LocalDateTime afterStart, Long afterId);
 }
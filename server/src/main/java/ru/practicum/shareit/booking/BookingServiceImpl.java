@@ -4,20 +4,36 @@ import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Sort;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.cache.ResultCache;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.version.ResourceVersion;
+import ru.practicum.shareit.version.Versioned;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,10 +41,16 @@ import java.util.stream.Collectors;
 @Slf4j
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final String OVERLAP_CONSTRAINT = "bookings_no_overlap";
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final String DEADLOCK_DETECTED = "40P01";
 
     private final BookingRepository bookingRepository;
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
+    private final BookingIntervalIndex intervalIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResultCache resultCache;
 
     @Override
     @Transactional
@@ -38,12 +60,91 @@ public class BookingServiceImpl implements BookingService {
         Item item = itemFindAndCheck(bookingDto.getItemId());
         bookingValid(bookingDto, userId, item);
 
-        Booking booking = BookingMapper.toEntity(bookingDto, item, user);
-        booking = bookingRepository.save(booking);
+        Booking booking = saveAndFlush(BookingMapper.toEntity(bookingDto, item, user));
+        intervalIndex.reserve(booking);
+        eventPublisher.publishEvent(new BookingChangedEvent(item.getId(), userId, item.getOwner().getId()));
 
         return BookingMapper.toBookingOut(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingDtoOut> createBookings(Long userId, List<BookingDto> bookingDtos) {
+        User user = findAndCheckUserById(userId);
+        Set<Long> itemIds = bookingDtos.stream()
+                .map(BookingDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+        List<Booking> bookings = new ArrayList<>();
+        for (BookingDto bookingDto : bookingDtos) {
+            Item item = items.get(bookingDto.getItemId());
+            if (item == null) {
+                throw new NotFoundException("Вещь с id " + bookingDto.getItemId() + " не найдена");
+            }
+            bookingValid(bookingDto, userId, item);
+            bookings.add(BookingMapper.toEntity(bookingDto, item, user));
+        }
+
+        saveAllAndFlush(bookings);
+        bookings.forEach(intervalIndex::reserve);
+        eventPublisher.publishEvent(new BookingsCreatedEvent(bookings.stream()
+                .map(booking -> new BookingChangedEvent(booking.getItem().getId(), userId,
+                        booking.getItem().getOwner().getId()))
+                .toList()));
+
+        return bookings.stream()
+                .map(BookingMapper::toBookingOut)
+                .toList();
+    }
+
+    private Booking saveAndFlush(Booking booking) {
+        try {
+            Booking saved = bookingRepository.save(booking);
+            bookingRepository.flush();
+            return saved;
+        } catch (DataIntegrityViolationException | CannotAcquireLockException e) {
+            if (isOverlap(e)) {
+                throw new ConflictException("Вещь с id " + booking.getItem().getId() + " уже забронирована на это время");
+            }
+            throw e;
+        }
+    }
+
+    private void saveAllAndFlush(List<Booking> bookings) {
+        try {
+            bookingRepository.saveAll(bookings);
+            bookingRepository.flush();
+        } catch (DataIntegrityViolationException | CannotAcquireLockException e) {
+            if (isOverlap(e)) {
+                throw new ConflictException("Одна из вещей уже забронирована на указанное время");
+            }
+            throw e;
+        }
+    }
+
+    private boolean isOverlap(DataAccessException e) {
+        for (Throwable cause = e.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation
+                    && OVERLAP_CONSTRAINT.equalsIgnoreCase(violation.getConstraintName())) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException) {
+                for (Throwable next : sqlException) {
+                    if (next instanceof SQLException nextSql && isOverlapState(nextSql.getSQLState())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean isOverlapState(String sqlState) {
+        return EXCLUSION_VIOLATION.equals(sqlState) || DEADLOCK_DETECTED.equals(sqlState);
+    }
+
     private User findAndCheckUserById(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException("Пользователь не найден"));
@@ -70,6 +171,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional
     public BookingDtoOut confirmBooking(Long userId, Long bookingId, Boolean approved) {
         findAndCheckUserById(userId);
         Booking booking = bookingFindAndCheck(bookingId);
@@ -83,70 +185,74 @@ public class BookingServiceImpl implements BookingService {
         }
 
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        booking = bookingRepository.save(booking);
+        booking = saveAndFlush(booking);
+        if (!approved) {
+            intervalIndex.release(booking);
+        }
+        eventPublisher.publishEvent(new BookingChangedEvent(booking.getItem().getId(),
+                booking.getBooker().getId(), userId));
 
         return BookingMapper.toBookingOut(booking);
     }
 
     @Override
     public BookingDtoOut getBooking(Long userId, Long bookingId) {
+        return BookingMapper.toBookingOut(findVisibleBooking(userId, bookingId));
+    }
+
+    @Override
+    public Versioned<BookingDtoOut> getVersionedBooking(Long userId, Long bookingId) {
+        Booking booking = findVisibleBooking(userId, bookingId);
+        return new Versioned<>(ResourceVersion.of("b", booking, booking.getItem(), booking.getBooker()),
+                () -> BookingMapper.toBookingOut(booking));
+    }
+
+    private Booking findVisibleBooking(Long userId, Long bookingId) {
         findAndCheckUserById(userId);
 
         Booking booking = bookingFindAndCheck(bookingId);
 
         if (booking.getBooker().getId().equals(userId) || booking.getItem().getOwner().getId().equals(userId)) {
-            return BookingMapper.toBookingOut(booking);
+            return booking;
         }
 
         throw new ValidationException("У вас нет прав для просмотра этого бронирования");
     }
 
     @Override
-    public List<BookingDtoOut> getAllBookings(Long userId, String state) {
+    public List<BookingDtoOut> getAllBookings(Long userId, String state, Integer from, Integer size,
+                                              LocalDateTime afterStart, Long afterId) {
         findAndCheckUserById(userId);
 
-        BookingStatus status = getBookingStatusFromState(state);
-
-        List<Booking> bookings;
+        BookingState bookingState = getBookingState(state);
 
-        if (status == null) {
-            bookings = bookingRepository.findByBookerId(userId, Sort.by(Sort.Order.desc("start")));
-        } else {
-            bookings = bookingRepository.findByBookerIdAndStatus(userId, status, Sort.by(Sort.Order.desc("start")));
-        }
-
-        return bookings.stream()
-                .map(BookingMapper::toBookingOut)
-                .collect(Collectors.toList());
+        return resultCache.getBookerBookings(userId,
+                () -> findBookings(new BookingFilter(userId, null, bookingState, LocalDateTime.now(),
+                        afterStart, afterId, from, size)),
+                bookingState, from, size, afterStart, afterId);
     }
 
     @Override
-    public List<BookingDtoOut> getAllBookingsForOwner(Long userId, String state) {
+    public List<BookingDtoOut> getAllBookingsForOwner(Long userId, String state, Integer from, Integer size,
+                                                      LocalDateTime afterStart, Long afterId) {
         findAndCheckUserById(userId);
 
-        BookingStatus status = getBookingStatusFromState(state);
+        BookingState bookingState = getBookingState(state);
 
-        List<Booking> bookings;
-
-        if (status == null) {
-            bookings = bookingRepository.findByItemOwnerId(userId, Sort.by(Sort.Order.desc("start")));
-        } else {
-            bookings = bookingRepository.findByItemOwnerIdAndStatus(userId, status, Sort.by(Sort.Order.desc("start")));
-        }
+        return resultCache.get(ResultCache.Scope.OWNER_BOOKINGS, userId,
+                () -> findBookings(new BookingFilter(null, userId, bookingState, LocalDateTime.now(),
+                        afterStart, afterId, from, size)),
+                BookingMapper::copy, bookingState, from, size, afterStart, afterId);
+    }
 
-        return bookings.stream()
+    private List<BookingDtoOut> findBookings(BookingFilter filter) {
+        return bookingRepository.findBookings(filter).stream()
                 .map(BookingMapper::toBookingOut)
                 .collect(Collectors.toList());
     }
 
-    private BookingStatus getBookingStatusFromState(String state) {
-        return switch (state.toUpperCase()) {
-            case "CURRENT" -> BookingStatus.CURRENT;
-            case "PAST" -> BookingStatus.PAST;
-            case "FUTURE" -> BookingStatus.FUTURE;
-            case "WAITING" -> BookingStatus.WAITING;
-            case "REJECTED" -> BookingStatus.REJECTED;
-            default -> null;
-        };
+    private BookingState getBookingState(String state) {
+        return BookingState.from(state)
+                .orElseThrow(() -> new ValidationException("Unknown state: " + state));
     }
 }
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public record BookingRow(Long id,
+                         LocalDateTime start,
+                         LocalDateTime end,
+                         BookingStatus status,
+                         Long itemId,
+                         String itemName,
+                         String itemDescription,
+                         Boolean itemAvailable,
+                         Long itemRequestId,
+                         Long bookerId,
+                         String bookerName,
+                         String bookerEmail) {
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking.interval;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@Slf4j
+public class BookingIntervalIndex {
+    private final BookingRepository bookingRepository;
+    private final Cache<Long, ItemIntervals> trees;
+
+    public BookingIntervalIndex(BookingRepository bookingRepository,
+                                @Value("${shareit.booking.intervals.max-items:10000}") long maxItems,
+                                @Value("${shareit.booking.intervals.ttl:10m}") Duration ttl) {
+        this.bookingRepository = bookingRepository;
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterAccess(ttl)
+                .build();
+    }
+
+    public void reserve(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        IntervalTree tree = intervalsFor(itemId).tree();
+        synchronized (tree) {
+            if (tree.overlaps(booking.getStart(), booking.getEnd(), booking.getId())) {
+                throw new ConflictException("Вещь с id " + itemId + " уже забронирована на это время");
+            }
+            tree.insert(booking.getId(), booking.getBooker().getId(), booking.getStart(), booking.getEnd());
+        }
+        afterRollback(() -> release(booking));
+    }
+
+    public void release(Booking booking) {
+        ItemIntervals intervals = trees.getIfPresent(booking.getItem().getId());
+        if (intervals == null) {
+            return;
+        }
+        synchronized (intervals.tree()) {
+            intervals.tree().remove(booking.getId());
+        }
+    }
+
+    public List<FreeSlotDto> findFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        ItemIntervals intervals = intervalsFor(itemId);
+        LocalDateTime start = from.isBefore(intervals.loadedFrom()) ? intervals.loadedFrom() : from;
+        if (!start.isBefore(to)) {
+            return List.of();
+        }
+        List<IntervalTree.Interval> busy;
+        synchronized (intervals.tree()) {
+            busy = intervals.tree().findOverlapping(start, to);
+        }
+
+        List<FreeSlotDto> slots = new ArrayList<>();
+        LocalDateTime cursor = start;
+        for (IntervalTree.Interval interval : busy) {
+            if (interval.start().isAfter(cursor)) {
+                slots.add(new FreeSlotDto(cursor, interval.start()));
+            }
+            if (interval.end().isAfter(cursor)) {
+                cursor = interval.end();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            slots.add(new FreeSlotDto(cursor, to));
+        }
+        return slots;
+    }
+
+    public void evict(Long itemId) {
+        trees.invalidate(itemId);
+    }
+
+    public void evictBooker(Long bookerId) {
+        trees.asMap().values().removeIf(intervals -> {
+            synchronized (intervals.tree()) {
+                return intervals.tree().hasBooker(bookerId);
+            }
+        });
+    }
+
+    public void clear() {
+        trees.invalidateAll();
+    }
+
+    private ItemIntervals intervalsFor(Long itemId) {
+        ItemIntervals cached = trees.getIfPresent(itemId);
+        if (cached != null) {
+            return cached;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        IntervalTree tree = new IntervalTree();
+        bookingRepository.findByItemIdAndStatusInAndEndIsAfter(itemId, BookingStatus.ACTIVE, now)
+                .forEach(b -> tree.insert(b.getId(), b.getBooker().getId(), b.getStart(), b.getEnd()));
+        log.debug("Загружены интервалы бронирований вещи с id {}", itemId);
+
+        ItemIntervals loaded = new ItemIntervals(tree, now);
+        ItemIntervals existing = trees.asMap().putIfAbsent(itemId, loaded);
+        if (existing != null) {
+            return existing;
+        }
+        afterRollback(() -> trees.asMap().remove(itemId, loaded));
+        return loaded;
+    }
+
+    private static void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private record ItemIntervals(IntervalTree tree, LocalDateTime loadedFrom) {
+    }
+}
@@ -0,0 +1,191 @@
+package ru.practicum.shareit.booking.interval;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+class IntervalTree {
+    private final Map<Long, LocalDateTime> starts = new HashMap<>();
+    private final Map<Long, Long> bookers = new HashMap<>();
+    private Node root;
+
+    void insert(Long id, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        remove(id);
+        starts.put(id, start);
+        bookers.put(id, bookerId);
+        root = insert(root, new Node(id, start, end));
+    }
+
+    void remove(Long id) {
+        LocalDateTime start = starts.remove(id);
+        bookers.remove(id);
+        if (start != null) {
+            root = remove(root, id, start);
+        }
+    }
+
+    boolean hasBooker(Long bookerId) {
+        return bookers.containsValue(bookerId);
+    }
+
+    boolean overlaps(LocalDateTime start, LocalDateTime end, Long excludeId) {
+        return overlaps(root, start, end, excludeId);
+    }
+
+    List<Interval> findOverlapping(LocalDateTime start, LocalDateTime end) {
+        List<Interval> result = new ArrayList<>();
+        collect(root, start, end, result);
+        return result;
+    }
+
+    private Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (compare(added.interval.start(), added.interval.id(), node) < 0) {
+            node.left = insert(node.left, added);
+        } else {
+            node.right = insert(node.right, added);
+        }
+        return balance(node);
+    }
+
+    private Node remove(Node node, Long id, LocalDateTime start) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, id, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, id, start);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, id, start);
+        } else {
+            if (node.left == null) {
+                return node.right;
+            }
+            if (node.right == null) {
+                return node.left;
+            }
+            Node successor = node.right;
+            while (successor.left != null) {
+                successor = successor.left;
+            }
+            successor.right = removeMin(node.right);
+            successor.left = node.left;
+            node = successor;
+        }
+        return balance(node);
+    }
+
+    private Node removeMin(Node node) {
+        if (node.left == null) {
+            return node.right;
+        }
+        node.left = removeMin(node.left);
+        return balance(node);
+    }
+
+    private boolean overlaps(Node node, LocalDateTime start, LocalDateTime end, Long excludeId) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return false;
+        }
+        if (node.interval.overlaps(start, end) && !node.interval.id().equals(excludeId)) {
+            return true;
+        }
+        if (overlaps(node.left, start, end, excludeId)) {
+            return true;
+        }
+        return node.interval.start().isBefore(end) && overlaps(node.right, start, end, excludeId);
+    }
+
+    private void collect(Node node, LocalDateTime start, LocalDateTime end, List<Interval> result) {
+        if (node == null || !node.maxEnd.isAfter(start)) {
+            return;
+        }
+        collect(node.left, start, end, result);
+        if (!node.interval.start().isBefore(end)) {
+            return;
+        }
+        if (node.interval.overlaps(start, end)) {
+            result.add(node.interval);
+        }
+        collect(node.right, start, end, result);
+    }
+
+    private static int compare(LocalDateTime start, Long id, Node node) {
+        int cmp = start.compareTo(node.interval.start());
+        return cmp != 0 ? cmp : id.compareTo(node.interval.id());
+    }
+
+    private static Node balance(Node node) {
+        update(node);
+        int factor = height(node.left) - height(node.right);
+        if (factor > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (factor < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private static void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.maxEnd = node.interval.end();
+        if (node.left != null && node.left.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.left.maxEnd;
+        }
+        if (node.right != null && node.right.maxEnd.isAfter(node.maxEnd)) {
+            node.maxEnd = node.right.maxEnd;
+        }
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    record Interval(Long id, LocalDateTime start, LocalDateTime end) {
+        boolean overlaps(LocalDateTime from, LocalDateTime to) {
+            return start.isBefore(to) && end.isAfter(from);
+        }
+    }
+
+    private static final class Node {
+        private final Interval interval;
+        private LocalDateTime maxEnd;
+        private int height = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Long id, LocalDateTime start, LocalDateTime end) {
+            this.interval = new Interval(id, start, end);
+            this.maxEnd = end;
+        }
+    }
+}
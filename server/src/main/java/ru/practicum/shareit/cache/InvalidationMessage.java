@@ -0,0 +1,36 @@
+package ru.practicum.shareit.cache;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public record InvalidationMessage(String origin, Type type, Long itemId, Long userId, Long ownerId) {
+    private static final String SEPARATOR = ";";
+
+    public String encode() {
+        return Arrays.stream(new Object[]{origin, type, itemId, userId, ownerId})
+                .map(value -> value == null ? "" : value.toString())
+                .collect(Collectors.joining(SEPARATOR));
+    }
+
+    public static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split(SEPARATOR, -1);
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Некорректное сообщение инвалидации: " + payload);
+        }
+        return new InvalidationMessage(parts[0], Type.valueOf(parts[1]),
+                toLong(parts[2]), toLong(parts[3]), toLong(parts[4]));
+    }
+
+    private static Long toLong(String value) {
+        return value.isEmpty() ? null : Long.valueOf(value);
+    }
+
+    public enum Type {
+        BOOKING,
+        ITEM_CREATED,
+        ITEM_UPDATED,
+        COMMENT,
+        USER_UPDATED,
+        USER_DELETED
+    }
+}
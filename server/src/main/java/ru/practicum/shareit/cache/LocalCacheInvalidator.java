@@ -0,0 +1,90 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.item.CommentCreatedEvent;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserChangedEvent;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LocalCacheInvalidator {
+    private final EntityManagerFactory entityManagerFactory;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+    private final BookingIntervalIndex intervalIndex;
+    private final ResultCache resultCache;
+
+    public void apply(InvalidationMessage message) {
+        log.debug("Инвалидация локальных кешей по сообщению {}", message);
+        switch (message.type()) {
+            case BOOKING -> {
+                intervalIndex.evict(message.itemId());
+                resultCache.onBookingChanged(
+                        new BookingChangedEvent(message.itemId(), message.userId(), message.ownerId()));
+            }
+            case ITEM_CREATED, ITEM_UPDATED -> {
+                itemChanged(message.itemId());
+                resultCache.onItemChanged(new ItemChangedEvent(message.itemId(), message.ownerId(),
+                        message.type() == InvalidationMessage.Type.ITEM_CREATED));
+            }
+            case COMMENT -> resultCache.onCommentCreated(new CommentCreatedEvent(message.itemId(), message.ownerId()));
+            case USER_UPDATED -> {
+                cache().evictEntityData(User.class, message.userId());
+                resultCache.clear();
+            }
+            case USER_DELETED -> userDeleted(message.userId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.deleted()) {
+            userDeleted(event.userId());
+        }
+    }
+
+    public void userDeleted(Long userId) {
+        Cache cache = cache();
+        cache.evictEntityData(User.class, userId);
+        cache.evictEntityData(Item.class);
+        cache.evictEntityData(ItemRequest.class);
+        cache.evictQueryRegions();
+        searchIndex.removeByOwner(userId);
+        intervalIndex.evictBooker(userId);
+        resultCache.clear();
+    }
+
+    public void clearAll() {
+        cache().evictAllRegions();
+        intervalIndex.clear();
+        resultCache.clear();
+        searchIndex.rebuild();
+    }
+
+    private void itemChanged(Long itemId) {
+        Cache cache = cache();
+        cache.evictEntityData(Item.class, itemId);
+        cache.evictQueryRegions();
+        itemRepository.findById(itemId)
+                .ifPresentOrElse(searchIndex::index, () -> searchIndex.removeItem(itemId));
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
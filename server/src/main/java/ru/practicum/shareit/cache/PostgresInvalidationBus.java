@@ -0,0 +1,201 @@
+package ru.practicum.shareit.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingsCreatedEvent;
+import ru.practicum.shareit.item.CommentCreatedEvent;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemsCreatedEvent;
+import ru.practicum.shareit.user.UserChangedEvent;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.UUID;
+
+@Component
+@ConditionalOnProperty(name = "shareit.invalidation.bus", havingValue = "postgres")
+@Slf4j
+public class PostgresInvalidationBus {
+    private static final int POLL_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_DELAY_MS = 5000;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final LocalCacheInvalidator cacheInvalidator;
+    private final String channel;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate,
+                                   DataSourceProperties dataSourceProperties,
+                                   LocalCacheInvalidator cacheInvalidator,
+                                   @Value("${shareit.invalidation.channel:shareit_invalidation}") String channel) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("Некорректное имя канала инвалидации: " + channel);
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.cacheInvalidator = cacheInvalidator;
+        this.channel = channel;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener = null;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingChanged(BookingChangedEvent event) {
+        publish(InvalidationMessage.Type.BOOKING, event.itemId(), event.bookerId(), event.ownerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onItemChanged(ItemChangedEvent event) {
+        publish(event.created() ? InvalidationMessage.Type.ITEM_CREATED : InvalidationMessage.Type.ITEM_UPDATED,
+                event.itemId(), null, event.ownerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onItemsCreated(ItemsCreatedEvent event) {
+        publishAll(event.itemIds().stream()
+                .map(itemId -> message(InvalidationMessage.Type.ITEM_CREATED, itemId, null, event.ownerId()))
+                .toList());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingsCreated(BookingsCreatedEvent event) {
+        publishAll(event.bookings().stream()
+                .map(booking -> message(InvalidationMessage.Type.BOOKING, booking.itemId(), booking.bookerId(),
+                        booking.ownerId()))
+                .toList());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        publish(InvalidationMessage.Type.COMMENT, event.itemId(), null, event.ownerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserChanged(UserChangedEvent event) {
+        publish(event.deleted() ? InvalidationMessage.Type.USER_DELETED : InvalidationMessage.Type.USER_UPDATED,
+                null, event.userId(), null);
+    }
+
+    private void publish(InvalidationMessage.Type type, Long itemId, Long userId, Long ownerId) {
+        String payload = message(type, itemId, userId, ownerId);
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, channel, payload);
+        } catch (RuntimeException e) {
+            log.error("Не удалось отправить сообщение инвалидации {}: {}", payload, e.getMessage());
+        }
+    }
+
+    private void publishAll(List<String> payloads) {
+        try {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "SELECT pg_notify(?, payload) FROM unnest(?) AS payload");
+                statement.setString(1, channel);
+                statement.setArray(2, connection.createArrayOf("text", payloads.toArray()));
+                return statement;
+            }, rs -> null);
+        } catch (RuntimeException e) {
+            log.error("Не удалось отправить {} сообщений инвалидации: {}", payloads.size(), e.getMessage());
+        }
+    }
+
+    private String message(InvalidationMessage.Type type, Long itemId, Long userId, Long ownerId) {
+        return new InvalidationMessage(nodeId, type, itemId, userId, ownerId).encode();
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                if (reconnect) {
+                    log.warn("Подписка на канал {} восстановлена, локальные кеши сброшены", channel);
+                    cacheInvalidator.clearAll();
+                }
+                reconnect = true;
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                if (running) {
+                    log.warn("Потеряно соединение с каналом {}: {}", channel, e.getMessage());
+                    sleep();
+                }
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        try {
+            InvalidationMessage message = InvalidationMessage.decode(payload);
+            if (!nodeId.equals(message.origin())) {
+                cacheInvalidator.apply(message);
+            }
+        } catch (RuntimeException e) {
+            log.error("Не удалось обработать сообщение инвалидации {}: {}", payload, e.getMessage());
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
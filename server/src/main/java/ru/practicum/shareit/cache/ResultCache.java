@@ -0,0 +1,159 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingsCreatedEvent;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.item.CommentCreatedEvent;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.ItemsCreatedEvent;
+import ru.practicum.shareit.user.UserChangedEvent;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+@Component
+@Slf4j
+public class ResultCache {
+    private final Cache<Key, List<?>> results;
+    private final Cache<Owner, Long> versions;
+    private final Cache<Long, Set<Long>> bookersByItem;
+    private final AtomicLong nextVersion = new AtomicLong();
+    private final AtomicLong itemChanges = new AtomicLong();
+
+    public ResultCache(@Value("${shareit.cache.results.max-size:10000}") long maxSize,
+                       @Value("${shareit.cache.results.ttl:60s}") Duration ttl) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterAccess(ttl)
+                .build();
+        this.bookersByItem = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public <T> List<T> get(Scope scope, Long userId, Supplier<List<T>> loader, UnaryOperator<T> copier,
+                           Object... params) {
+        return get(new Owner(scope, userId), loader, copier, null, params);
+    }
+
+    public List<BookingDtoOut> getBookerBookings(Long userId, Supplier<List<BookingDtoOut>> loader,
+                                                 Object... params) {
+        return get(new Owner(Scope.BOOKER_BOOKINGS, userId), loader, BookingMapper::copy,
+                booking -> booking.getItem().getId(), params);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> get(Owner owner, Supplier<List<T>> loader, UnaryOperator<T> copier,
+                            Function<T, Long> itemIdOf, Object[] params) {
+        Key key = new Key(owner, versions.get(owner, o -> nextVersion.incrementAndGet()), Arrays.asList(params));
+        List<T> cached = (List<T>) results.getIfPresent(key);
+        if (cached != null) {
+            return cached.stream().map(copier).toList();
+        }
+
+        long itemChangesBefore = itemChanges.get();
+        List<T> loaded = loader.get();
+        if (itemIdOf != null) {
+            loaded.forEach(value -> bookersByItem.asMap().compute(itemIdOf.apply(value), (itemId, bookers) -> {
+                Set<Long> dependent = bookers != null ? bookers : ConcurrentHashMap.newKeySet();
+                dependent.add(owner.userId());
+                return dependent;
+            }));
+            if (itemChanges.get() != itemChangesBefore) {
+                return List.copyOf(loaded);
+            }
+        }
+        results.put(key, loaded.stream().map(copier).toList());
+        return List.copyOf(loaded);
+    }
+
+    public void invalidate(Scope scope, Long userId) {
+        if (userId != null) {
+            versions.invalidate(new Owner(scope, userId));
+        }
+    }
+
+    public void clear() {
+        itemChanges.incrementAndGet();
+        versions.invalidateAll();
+        results.invalidateAll();
+        bookersByItem.invalidateAll();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        invalidate(Scope.BOOKER_BOOKINGS, event.bookerId());
+        invalidate(Scope.OWNER_BOOKINGS, event.ownerId());
+        invalidate(Scope.OWNER_ITEMS, event.ownerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChangedEvent event) {
+        invalidate(Scope.OWNER_ITEMS, event.ownerId());
+        if (!event.created()) {
+            invalidate(Scope.OWNER_BOOKINGS, event.ownerId());
+            invalidateBookersOf(event.itemId());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemsCreated(ItemsCreatedEvent event) {
+        invalidate(Scope.OWNER_ITEMS, event.ownerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingsCreated(BookingsCreatedEvent event) {
+        event.bookings().forEach(this::onBookingChanged);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        invalidate(Scope.OWNER_ITEMS, event.ownerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.deleted()) {
+            clear();
+        }
+    }
+
+    private void invalidateBookersOf(Long itemId) {
+        itemChanges.incrementAndGet();
+        Set<Long> bookers = bookersByItem.asMap().remove(itemId);
+        if (bookers != null) {
+            bookers.forEach(bookerId -> invalidate(Scope.BOOKER_BOOKINGS, bookerId));
+        }
+    }
+
+    public enum Scope {
+        BOOKER_BOOKINGS,
+        OWNER_BOOKINGS,
+        OWNER_ITEMS
+    }
+
+    private record Owner(Scope scope, Long userId) {
+    }
+
+    private record Key(Owner owner, long version, List<Object> params) {
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.datasource;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Interceptor;
+import org.hibernate.type.Type;
+
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements Interceptor {
+    private final ReadYourWritesTracker tracker;
+
+    @Override
+    public boolean onSave(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        tracker.stickAfterCommit(tracker.currentUser());
+        return false;
+    }
+
+    @Override
+    public boolean onFlushDirty(Object entity, Object id, Object[] currentState, Object[] previousState,
+                                String[] propertyNames, Type[] types) {
+        tracker.stickAfterCommit(tracker.currentUser());
+        return false;
+    }
+
+    @Override
+    public void onDelete(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        tracker.stickAfterCommit(tracker.currentUser());
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingsCreatedEvent;
+import ru.practicum.shareit.user.UserChangedEvent;
+
+import java.time.Duration;
+
+@Component
+@ConditionalOnProperty(name = "shareit.datasource.replica.urls")
+public class ReadYourWritesTracker {
+    private final ThreadLocal<Long> currentUser = new ThreadLocal<>();
+    private final Cache<Long, Boolean> stickyUsers;
+
+    public ReadYourWritesTracker(@Value("${shareit.datasource.replica.sticky-window:5s}") Duration stickyWindow) {
+        this.stickyUsers = Caffeine.newBuilder()
+                .expireAfterWrite(stickyWindow)
+                .build();
+    }
+
+    public void bind(Long userId) {
+        currentUser.set(userId);
+    }
+
+    public void clear() {
+        currentUser.remove();
+    }
+
+    public Long currentUser() {
+        return currentUser.get();
+    }
+
+    public boolean isSticky(Long userId) {
+        return userId != null && stickyUsers.getIfPresent(userId) != null;
+    }
+
+    public void stick(Long userId) {
+        if (userId != null) {
+            stickyUsers.put(userId, Boolean.TRUE);
+        }
+    }
+
+    public void stickAfterCommit(Long userId) {
+        if (userId == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new StickAfterCommit(userId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChangedEvent event) {
+        stick(event.bookerId());
+        stick(event.ownerId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingsCreated(BookingsCreatedEvent event) {
+        event.bookings().forEach(this::onBookingChanged);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.deleted()) {
+            stick(event.userId());
+        }
+    }
+
+    private final class StickAfterCommit implements TransactionSynchronization {
+        private final Long userId;
+
+        private StickAfterCommit(Long userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        public void afterCommit() {
+            stick(userId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StickAfterCommit other && userId.equals(other.userId);
+        }
+
+        @Override
+        public int hashCode() {
+            return userId.hashCode();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    private static final long UNKNOWN_LAG = -1;
+    private static final String LAG_SQL = "SELECT CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE CAST(EXTRACT(EPOCH FROM clock_timestamp() - pg_last_xact_replay_timestamp()) * 1000 AS BIGINT) END";
+
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReadYourWritesTracker tracker;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    ReadYourWritesTracker tracker, Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.tracker = tracker;
+        this.maxLagMillis = maxLag.toMillis();
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.name, replica.dataSource));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            return PRIMARY;
+        }
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return PRIMARY;
+        }
+        if (tracker.isSticky(tracker.currentUser())) {
+            return PRIMARY;
+        }
+        List<Replica> healthy = replicas.stream()
+                .filter(this::isHealthy)
+                .toList();
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size())).name;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.datasource.replica.lag-check-interval:1000}")
+    public void checkReplicationLag() {
+        for (Replica replica : replicas) {
+            boolean wasHealthy = isHealthy(replica);
+            replica.lagMillis = measureLag(replica);
+            boolean healthy = isHealthy(replica);
+            if (wasHealthy && !healthy) {
+                log.warn("Реплика {} выведена из чтения, отставание: {} мс", replica.name, replica.lagMillis);
+            } else if (!wasHealthy && healthy) {
+                log.info("Реплика {} возвращена в чтение, отставание: {} мс", replica.name, replica.lagMillis);
+            }
+        }
+    }
+
+    public Map<String, Long> replicationLag() {
+        Map<String, Long> lag = new HashMap<>();
+        replicas.forEach(replica -> lag.put(replica.name, replica.lagMillis));
+        return lag;
+    }
+
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+        primary.close();
+    }
+
+    private boolean isHealthy(Replica replica) {
+        return replica.lagMillis != UNKNOWN_LAG && replica.lagMillis <= maxLagMillis;
+    }
+
+    private long measureLag(Replica replica) {
+        try {
+            Long lag = replica.jdbcTemplate.queryForObject(LAG_SQL, Long.class);
+            return lag != null ? lag : UNKNOWN_LAG;
+        } catch (DataAccessException e) {
+            log.warn("Не удалось проверить отставание реплики {}: {}", replica.name, e.getMessage());
+            return UNKNOWN_LAG;
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private volatile long lagMillis = UNKNOWN_LAG;
+
+        private Replica(HikariDataSource dataSource) {
+            this.name = dataSource.getPoolName();
+            this.dataSource = dataSource;
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+        }
+    }
+}
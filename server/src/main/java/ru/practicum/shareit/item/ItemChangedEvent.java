@@ -0,0 +1,4 @@
+package ru.practicum.shareit.item;
+
+public record ItemChangedEvent(Long itemId, Long ownerId, boolean created) {
+}
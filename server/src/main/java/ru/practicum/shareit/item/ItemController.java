@@ -1,15 +1,22 @@
 package ru.practicum.shareit.item;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 
@@ -17,6 +24,7 @@ import java.util.List;
 @RequiredArgsConstructor
 @RequestMapping("/items")
 @Slf4j
+@Validated
 public class ItemController {
     private final ItemService itemService;
 
@@ -29,6 +37,15 @@ public class ItemController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdItem);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ItemDto>> createItems(
+            @RequestBody List<@Valid ItemDto> itemDtos,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Пакетное создание {} вещей пользователем с ID {}", itemDtos.size(), userId);
+        List<ItemDto> createdItems = itemService.createItems(itemDtos, userId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdItems);
+    }
+
     @PatchMapping("/{itemId}")
     public ResponseEntity<ItemDto> updateItem(
             @PathVariable Long itemId,
@@ -42,28 +59,65 @@ public class ItemController {
     @GetMapping("/{itemId}")
     public ResponseEntity<ItemDto> getItem(
             @PathVariable Long itemId,
-            @RequestHeader("X-Sharer-User-Id") Long userId) {
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            WebRequest request) {
         log.info("Получение информации о вещи с ID {} пользователем с ID {}", itemId, userId);
-        ItemDto item = itemService.getItemById(itemId);
-        return ResponseEntity.ok(item);
+        return itemService.getVersionedItem(itemId).toResponse(request);
+    }
+
+    @GetMapping("/{itemId}/free-slots")
+    public ResponseEntity<List<FreeSlotDto>> getFreeSlots(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Получение свободных интервалов вещи с ID {} c {} по {} пользователем с ID {}",
+                itemId, from, to, userId);
+        return ResponseEntity.ok(itemService.getFreeSlots(itemId, from, to));
     }
 
     @GetMapping
     public ResponseEntity<List<ItemDto>> getItemsBuOwner(
-            @RequestHeader("X-Sharer-User-Id") Long userId) {
-        List<ItemDto> items = itemService.getItemsByOwner(userId);
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestParam(required = false) Long afterId) {
+        log.info("Получение вещей владельца с ID {}, from={}, size={}, afterId={}", userId, from, size, afterId);
+        List<ItemDto> items = itemService.getItemsByOwner(userId, from, size, afterId);
         return ResponseEntity.ok(items);
     }
 
     @GetMapping("/search")
     public ResponseEntity<List<ItemDto>> searchItems(
             @RequestParam String text,
+            @RequestParam(defaultValue = "false") Boolean fuzzy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "10") @Positive Integer size,
             @RequestHeader("X-Sharer-User-Id") Long userId) {
-        log.info("Поиск вещей с текстом '{}' пользователем с ID {}", text, userId);
-        List<ItemDto> items = itemService.searchItems(text);
+        log.info("Поиск вещей с текстом '{}' пользователем с ID {}, fuzzy={}, период {} - {}",
+                text, userId, fuzzy, start, end);
+        List<ItemDto> items;
+        if (start != null || end != null) {
+            items = itemService.searchFreeItems(text, start, end, from, size);
+        } else if (fuzzy) {
+            items = itemService.fuzzySearchItems(text, from, size);
+        } else {
+            items = itemService.searchItems(text, from, size);
+        }
         return ResponseEntity.ok(items);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<List<String>> suggestItemNames(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") @Positive Integer size,
+            @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Подсказки названий вещей по префиксу '{}' для пользователя с ID {}", prefix, userId);
+        return ResponseEntity.ok(itemService.suggestItemNames(prefix, size));
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<CommentDtoOut> createComment(
             @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -2,20 +2,35 @@ package ru.practicum.shareit.item;
 
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.version.Versioned;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     ItemDto createItem(ItemDto itemDto, Long userId);
 
+    List<ItemDto> createItems(List<ItemDto> itemDtos, Long userId);
+
     ItemDto updateItem(Long itemId, ItemDto itemDto, Long userId);
 
     ItemDto getItemById(Long itemId);
 
-    List<ItemDto> getItemsByOwner(Long ownerId);
+    Versioned<ItemDto> getVersionedItem(Long itemId);
+
+    List<ItemDto> getItemsByOwner(Long ownerId, Integer from, Integer size, Long afterId);
+
+    List<ItemDto> searchItems(String txt, Integer from, Integer size);
+
+    List<ItemDto> fuzzySearchItems(String txt, Integer from, Integer size);
+
+    List<ItemDto> searchFreeItems(String txt, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
+    List<String> suggestItemNames(String prefix, Integer size);
 
-    List<ItemDto> searchItems(String txt);
+    List<FreeSlotDto> getFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to);
 
     CommentDtoOut createComment(Long userId, CommentDto dto, Long itemId);
 }
@@ -1,20 +1,22 @@
 package ru.practicum.shareit.item;
 
-import jakarta.transaction.Transactional;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
-import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingRepository;
-import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.cache.ResultCache;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -22,23 +24,39 @@ import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.OffsetPageRequest;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.view.ItemView;
+import ru.practicum.shareit.item.view.ItemViewService;
+import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.version.ResourceVersion;
+import ru.practicum.shareit.version.Versioned;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository requestRepository;
+    private final ItemSearchEngine searchEngine;
+    private final ItemSearchIndex searchIndex;
+    private final BookingIntervalIndex intervalIndex;
+    private final ItemViewService itemViewService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ResultCache resultCache;
 
     @Transactional
     @Override
@@ -54,9 +72,49 @@ public class ItemServiceImpl implements ItemService {
 
         log.info("Сохраняем вещь: {} для пользователя {}", itemDto, owner.getName());
         itemRepository.save(item);
+        searchIndex.indexAfterCommit(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), userId, true));
         return ItemMapper.toDto(item);
     }
 
+    @Transactional
+    @Override
+    public List<ItemDto> createItems(List<ItemDto> itemDtos, Long userId) {
+        User owner = findUserById(userId);
+        Map<Long, ItemRequest> requests = findRequests(itemDtos);
+
+        List<Item> items = itemDtos.stream()
+                .map(itemDto -> {
+                    Item item = ItemMapper.toEntity(itemDto, owner);
+                    item.setRequest(requests.get(itemDto.getRequestId()));
+                    return item;
+                })
+                .toList();
+
+        log.info("Сохраняем {} вещей для пользователя {}", items.size(), owner.getName());
+        itemRepository.saveAll(items);
+        searchIndex.indexAfterCommit(items);
+        eventPublisher.publishEvent(new ItemsCreatedEvent(userId, items.stream()
+                .map(Item::getId)
+                .toList()));
+        return items.stream()
+                .map(ItemMapper::toDto)
+                .toList();
+    }
+
+    private Map<Long, ItemRequest> findRequests(List<ItemDto> itemDtos) {
+        Set<Long> requestIds = itemDtos.stream()
+                .map(ItemDto::getRequestId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, ItemRequest> requests = requestRepository.findAllById(requestIds).stream()
+                .collect(Collectors.toMap(ItemRequest::getId, Function.identity()));
+        if (requests.size() < requestIds.size()) {
+            throw new NotFoundException("Запрос не найден");
+        }
+        return requests;
+    }
+
     @Transactional
     @Override
     public ItemDto updateItem(Long itemId, ItemDto itemDto, Long userId) {
@@ -71,31 +129,22 @@ public class ItemServiceImpl implements ItemService {
         if (itemDto.getAvailable() != null) item.setAvailable(itemDto.getAvailable());
 
         itemRepository.save(item);
+        searchIndex.indexAfterCommit(item);
+        eventPublisher.publishEvent(new ItemChangedEvent(item.getId(), userId, false));
         return ItemMapper.toDto(item);
     }
 
     @Override
     public ItemDto getItemById(Long itemId) {
-        Item item = findAndCheckItem(itemId);
-
-        BookingDtoOut lastBooking = bookingRepository
-                .findTopByItemIdAndEndBeforeAndStatusOrderByEndDesc(itemId, LocalDateTime.now(), BookingStatus.APPROVED)
-                .map(BookingMapper::toBookingOut)
-                .orElse(null);
-
-        BookingDtoOut nextBooking = bookingRepository
-                .findTopByItemIdAndStartBeforeAndEndAfterOrderByStartAsc(itemId, LocalDateTime.now(), LocalDateTime.now())
-                .map(BookingMapper::toBookingOut)
-                .orElse(null);
-
-        List<CommentDtoOut> comments = commentRepository.findAllByItemId(itemId).stream()
-                .map(CommentMapper::toDto)
-                .collect(Collectors.toList());
-
-        log.info("lastBooking: {}", lastBooking);
-        log.info("nextBooking: {}", nextBooking);
+        return itemViewService.getItem(findAndCheckItem(itemId));
+    }
 
-        return ItemMapper.toItemDtoOut(item, lastBooking, comments, nextBooking);
+    @Override
+    public Versioned<ItemDto> getVersionedItem(Long itemId) {
+        Item item = findAndCheckItem(itemId);
+        ItemView view = itemViewService.getView(itemId);
+        return new Versioned<>(ResourceVersion.of("i", item).and(view.contentTag(), view.getUpdatedAt()),
+                () -> itemViewService.toDto(item, view));
     }
 
     private Item findAndCheckItem(Long itemId) {
@@ -104,66 +153,76 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> getItemsByOwner(Long userId) {
-        User owner = findUserById(userId);
+    public List<ItemDto> getItemsByOwner(Long userId, Integer from, Integer size, Long afterId) {
+        findUserById(userId);
 
-        List<Item> items = itemRepository.findAllByOwner(owner);
+        int offset = afterId == null ? from : 0;
+        return resultCache.get(ResultCache.Scope.OWNER_ITEMS, userId,
+                () -> findItemsByOwner(userId, offset, size, afterId), ItemMapper::copy, offset, size, afterId);
+    }
 
+    private List<ItemDto> findItemsByOwner(Long userId, Integer from, Integer size, Long afterId) {
+        List<Item> items = itemRepository.findByOwnerIdAndIdGreaterThan(userId, afterId == null ? 0L : afterId,
+                OffsetPageRequest.of(from, size, Sort.by("id")));
         if (items.isEmpty()) {
             return Collections.emptyList();
         }
 
-        List<Long> itemIds = items.stream()
-                .map(Item::getId)
-                .collect(Collectors.toList());
-
-        List<Booking> bookings = bookingRepository.findAllByItemIdInAndStatusApproved(itemIds);
-
-        Map<Long, List<Booking>> bookingMap = bookings.stream()
-                .collect(Collectors.groupingBy(g -> g.getItem().getId()));
-
-        List<Comment> itemComments = commentRepository.findAllByItemIdIn(itemIds);
-
-        Map<Long, List<CommentDtoOut>> commentMap = itemComments.stream()
-                .collect(Collectors.groupingBy(c -> c.getItem().getId(),
-                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
-
-        return items.stream()
-                .map(item -> {
-                    List<Booking> itemBookings = bookingMap.getOrDefault(item.getId(), Collections.emptyList());
+        return itemViewService.getItems(items);
+    }
 
-                    Optional<Booking> lastBookingOpt = itemBookings.stream()
-                            .filter(b -> b.getEnd().isBefore(LocalDateTime.now()))
-                            .reduce((first, second) -> second);
+    private User findUserById(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден"));
+    }
 
-                    Optional<Booking> nextBookingOpt = itemBookings.stream()
-                            .filter(b -> b.getStart().isAfter(LocalDateTime.now()))
-                            .findFirst();
+    @Override
+    public List<ItemDto> searchItems(String txt, Integer from, Integer size) {
+        if (txt.isBlank()) {
+            return Collections.emptyList();
+        }
+        return searchEngine.search(txt, from, size);
+    }
 
-                    BookingDtoOut lastBooking = lastBookingOpt.map(BookingMapper::toBookingOut).orElse(null);
-                    BookingDtoOut nextBooking = nextBookingOpt.map(BookingMapper::toBookingOut).orElse(null);
-                    List<CommentDtoOut> comments = commentMap.getOrDefault(item.getId(), Collections.emptyList());
+    @Override
+    public List<ItemDto> fuzzySearchItems(String txt, Integer from, Integer size) {
+        if (txt.isBlank()) {
+            return Collections.emptyList();
+        }
+        return searchEngine.fuzzySearch(txt, from, size);
+    }
 
-                    return ItemMapper.toItemDtoOut(item, lastBooking, comments, nextBooking);
-                })
-                .collect(Collectors.toList());
+    @Override
+    public List<ItemDto> searchFreeItems(String txt, LocalDateTime start, LocalDateTime end,
+                                         Integer from, Integer size) {
+        if (start == null || end == null) {
+            throw new ValidationException("Для поиска свободных вещей нужно указать начало и конец периода");
+        }
+        if (!start.isBefore(end)) {
+            throw new ValidationException("Конец периода не может быть раньше начала или равен ему");
+        }
+        if (txt.isBlank()) {
+            return Collections.emptyList();
+        }
+        return searchEngine.searchFree(txt, start, end, from, size);
     }
 
-    private User findUserById(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден"));
+    @Override
+    public List<String> suggestItemNames(String prefix, Integer size) {
+        return searchIndex.suggest(prefix, size);
     }
 
     @Override
-    public List<ItemDto> searchItems(String txt) {
-        List<Item> items = itemRepository.searchItemsByTxt(txt.toLowerCase());
-        return items.stream()
-                .filter(Item::getAvailable)
-                .map(ItemMapper::toDto)
-                .collect(Collectors.toList());
+    public List<FreeSlotDto> getFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Конец периода не может быть раньше начала или равен ему");
+        }
+        findAndCheckItem(itemId);
+        return intervalIndex.findFreeSlots(itemId, from, to);
     }
 
     @Override
+    @Transactional
     public CommentDtoOut createComment(Long userId, CommentDto dto, Long itemId) {
         User user = findUserById(userId);
 
@@ -180,6 +239,7 @@ public class ItemServiceImpl implements ItemService {
 
         Comment comment = CommentMapper.toEntity(dto, item, user);
         commentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentCreatedEvent(itemId, item.getOwner().getId()));
         log.info("Comment {}", comment);
 
         return CommentMapper.toDto(comment);
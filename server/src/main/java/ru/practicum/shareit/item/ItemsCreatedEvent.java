@@ -0,0 +1,6 @@
+package ru.practicum.shareit.item;
+
+import java.util.List;
+
+public record ItemsCreatedEvent(Long ownerId, List<Long> itemIds) {
+}
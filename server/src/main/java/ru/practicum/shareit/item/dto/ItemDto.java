@@ -27,6 +27,7 @@ public class ItemDto {
     BookingDtoOut lastBooking;
     BookingDtoOut nextBooking;
     List<CommentDtoOut> comments;
+    Integer commentCount;
 
     Long requestId;
 }
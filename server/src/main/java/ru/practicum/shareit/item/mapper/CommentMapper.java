@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.mapper;
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.CommentSummary;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
@@ -29,4 +30,24 @@ public class CommentMapper {
                 comment.getItem().getId()
         );
     }
+
+    public CommentDtoOut toDto(CommentSummary summary) {
+        return new CommentDtoOut(
+                summary.getId(),
+                summary.getText(),
+                summary.getAuthorName(),
+                summary.getCreated(),
+                summary.getItemId()
+        );
+    }
+
+    public CommentDtoOut copy(CommentDtoOut comment) {
+        return new CommentDtoOut(
+                comment.getId(),
+                comment.getText(),
+                comment.getAuthorName(),
+                comment.getCreated(),
+                comment.getItemId()
+        );
+    }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.mapper;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -8,6 +9,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @UtilityClass
 public class ItemMapper {
@@ -47,4 +49,23 @@ public class ItemMapper {
         return dto;
 
     }
+
+    public ItemDto copy(ItemDto itemDto) {
+        if (itemDto == null) {
+            return null;
+        }
+        return new ItemDto(
+                itemDto.getId(),
+                itemDto.getName(),
+                itemDto.getDescription(),
+                itemDto.getAvailable(),
+                BookingMapper.copy(itemDto.getLastBooking()),
+                BookingMapper.copy(itemDto.getNextBooking()),
+                itemDto.getComments() == null ? null : itemDto.getComments().stream()
+                        .map(CommentMapper::copy)
+                        .collect(Collectors.toList()),
+                itemDto.getCommentCount(),
+                itemDto.getRequestId()
+        );
+    }
 }
@@ -1,15 +1,25 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.CommentSummary;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItemId(Long itemId);
-
-    List<Comment> findAllByItemIdIn(List<Long> itemIds);
+    @Query(value = "SELECT c.id AS id, c.item_id AS itemId, c.text AS text, c.created AS created, " +
+            "u.name AS authorName " +
+            "FROM (" +
+            "SELECT cm.*, ROW_NUMBER() OVER (PARTITION BY cm.item_id ORDER BY cm.created DESC, cm.id DESC) AS rn " +
+            "FROM comments cm WHERE cm.item_id IN (:itemIds)" +
+            ") c JOIN users u ON u.id = c.author_id " +
+            "WHERE c.rn <= :limit " +
+            "ORDER BY c.item_id, c.created DESC, c.id DESC", nativeQuery = true)
+    List<CommentSummary> findLatestByItemIds(@Param("itemIds") Collection<Long> itemIds, @Param("limit") int limit);
 }
@@ -1,21 +1,77 @@
 package ru.practicum.shareit.item.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findAllByOwner(User owner);
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "item_queries")})
+    @EntityGraph(attributePaths = "request")
+    List<Item> findByOwnerIdAndIdGreaterThan(Long ownerId, Long afterId, Pageable pageable);
 
-    @Query("SELECT i FROM Item i WHERE LOWER(i.name) LIKE %:txt% OR LOWER(i.description) LIKE %:txt%")
-    List<Item> searchItemsByTxt(@Param("txt") String txt);
+    @Query("SELECT i FROM Item i WHERE i.available = true " +
+            "AND (LOWER(i.name) LIKE %:txt% OR LOWER(i.description) LIKE %:txt%)")
+    List<Item> searchItemsByTxt(@Param("txt") String txt, Pageable pageable);
 
+    @Query("SELECT i FROM Item i WHERE i.available = true " +
+            "AND (LOWER(i.name) LIKE %:txt% OR LOWER(i.description) LIKE %:txt%) " +
+            "AND NOT EXISTS (SELECT b.id FROM Booking b WHERE b.item = i AND b.status IN :statuses " +
+            "AND b.start < :end AND b.end > :start)")
+    List<Item> searchFreeItemsByTxt(@Param("txt") String txt,
+                                    @Param("start") LocalDateTime start,
+                                    @Param("end") LocalDateTime end,
+                                    @Param("statuses") Collection<BookingStatus> statuses,
+                                    Pageable pageable);
+
+    @Query(value = "SELECT i.* FROM items i, " +
+            "CAST(plainto_tsquery('russian', :txt) || plainto_tsquery('simple', :txt) AS tsquery) q " +
+            "WHERE i.available = TRUE AND i.search_vector @@ q " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> searchItemsByFullText(@Param("txt") String txt, @Param("from") int from, @Param("size") int size);
+
+    @Query(value = "SELECT i.* FROM items i, " +
+            "CAST(plainto_tsquery('russian', :txt) || plainto_tsquery('simple', :txt) AS tsquery) q " +
+            "WHERE i.available = TRUE AND i.search_vector @@ q " +
+            "AND NOT EXISTS (SELECT 1 FROM bookings b WHERE b.item_id = i.id " +
+            "AND b.status IN ('APPROVED', 'WAITING') AND b.start_time < :end AND b.end_time > :start) " +
+            "ORDER BY ts_rank(i.search_vector, q) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> searchFreeItemsByFullText(@Param("txt") String txt,
+                                         @Param("start") LocalDateTime start,
+                                         @Param("end") LocalDateTime end,
+                                         @Param("from") int from,
+                                         @Param("size") int size);
+
+    @Query(value = "SELECT set_config('pg_trgm.word_similarity_threshold', :threshold, true)", nativeQuery = true)
+    String setWordSimilarityThreshold(@Param("threshold") String threshold);
+
+    @Query(value = "SELECT i.* FROM items i " +
+            "WHERE i.available = TRUE AND :txt <% LOWER(i.name) " +
+            "ORDER BY word_similarity(:txt, LOWER(i.name)) DESC, i.id " +
+            "LIMIT :size OFFSET :from", nativeQuery = true)
+    List<Item> searchItemsBySimilarity(@Param("txt") String txt, @Param("from") int from, @Param("size") int size);
+
+    @Query("SELECT i FROM Item i LEFT JOIN FETCH i.request")
+    Slice<Item> findAllWithRequest(Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "item_queries")})
     @Query("SELECT i FROM Item i WHERE i.request.id IN :requestIds")
     List<Item> findByRequestIds(@Param("requestIds") List<Long> requestIds);
 }
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.item.search;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.OffsetPageRequest;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "fulltext")
+public class FullTextItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final DataSource dataSource;
+    private final ItemSearchIndex searchIndex;
+    private final double fuzzyThreshold;
+
+    private boolean postgres;
+
+    public FullTextItemSearchEngine(ItemRepository itemRepository, DataSource dataSource, ItemSearchIndex searchIndex,
+                                    @Value("${shareit.search.fuzzy.threshold:0.5}") double fuzzyThreshold) {
+        this.itemRepository = itemRepository;
+        this.dataSource = dataSource;
+        this.searchIndex = searchIndex;
+        this.fuzzyThreshold = fuzzyThreshold;
+    }
+
+    @PostConstruct
+    void detectDatabase() {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            postgres = "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Не удалось определить тип БД, полнотекстовый поиск отключен", e);
+        }
+        if (!postgres) {
+            log.info("Полнотекстовый и нечеткий поиск в БД доступны только для PostgreSQL, используются LIKE и индекс в памяти");
+        }
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        List<Item> items = postgres
+                ? itemRepository.searchItemsByFullText(text, from, size)
+                : itemRepository.searchItemsByTxt(text.toLowerCase(), OffsetPageRequest.of(from, size, Sort.by("id")));
+        return items.stream()
+                .map(ItemMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public List<ItemDto> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        List<Item> items = postgres
+                ? itemRepository.searchFreeItemsByFullText(text, start, end, from, size)
+                : itemRepository.searchFreeItemsByTxt(text.toLowerCase(), start, end, BookingStatus.ACTIVE,
+                OffsetPageRequest.of(from, size, Sort.by("id")));
+        return items.stream()
+                .map(ItemMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ItemDto> fuzzySearch(String text, int from, int size) {
+        if (!postgres) {
+            return searchIndex.fuzzySearch(text, from, size);
+        }
+        itemRepository.setWordSimilarityThreshold(String.valueOf(fuzzyThreshold));
+        return itemRepository.searchItemsBySimilarity(text.toLowerCase(), from, size).stream()
+                .map(ItemMapper::toDto)
+                .toList();
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "index")
+public class IndexItemSearchEngine implements ItemSearchEngine {
+    private static final int MIN_CANDIDATE_BATCH = 50;
+
+    private final ItemSearchIndex searchIndex;
+    private final BookingRepository bookingRepository;
+    private final int maxResults;
+
+    public IndexItemSearchEngine(ItemSearchIndex searchIndex, BookingRepository bookingRepository,
+                                 @Value("${shareit.search.max-results:1000}") int maxResults) {
+        this.searchIndex = searchIndex;
+        this.bookingRepository = bookingRepository;
+        this.maxResults = maxResults;
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        return searchIndex.search(text, from, size);
+    }
+
+    @Override
+    public List<ItemDto> fuzzySearch(String text, int from, int size) {
+        return searchIndex.fuzzySearch(text, from, size);
+    }
+
+    @Override
+    public List<ItemDto> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        int wanted = from + size;
+        List<ItemDto> free = new ArrayList<>();
+        int offset = 0;
+        while (free.size() < wanted && offset < maxResults) {
+            int batch = Math.max(wanted - free.size(), MIN_CANDIDATE_BATCH);
+            List<ItemDto> candidates = searchIndex.search(text, offset, batch);
+            if (candidates.isEmpty()) {
+                break;
+            }
+            Set<Long> busy = new HashSet<>(bookingRepository.findBusyItemIds(
+                    candidates.stream().map(ItemDto::getId).toList(), start, end, BookingStatus.ACTIVE));
+            candidates.stream()
+                    .filter(item -> !busy.contains(item.getId()))
+                    .forEach(free::add);
+            if (candidates.size() < batch) {
+                break;
+            }
+            offset += batch;
+        }
+        return free.stream()
+                .skip(from)
+                .limit(size)
+                .toList();
+    }
+}
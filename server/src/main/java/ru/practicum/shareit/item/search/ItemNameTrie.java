@@ -0,0 +1,113 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+class ItemNameTrie {
+    private final Node root = new Node("");
+
+    void insert(String key, Long itemId) {
+        Node node = root;
+        String rest = key;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                child = new Node(rest);
+                node.children.put(rest.charAt(0), child);
+                node = child;
+                break;
+            }
+            int common = commonPrefixLength(child.label, rest);
+            if (common < child.label.length()) {
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.children.put(child.label.charAt(0), child);
+                node.children.put(split.label.charAt(0), split);
+                child = split;
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+        node.itemIds.add(itemId);
+    }
+
+    void remove(String key, Long itemId) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        String rest = key;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null || !rest.startsWith(child.label)) {
+                return;
+            }
+            path.push(node);
+            node = child;
+            rest = rest.substring(child.label.length());
+        }
+        node.itemIds.remove(itemId);
+
+        while (!path.isEmpty() && node.itemIds.isEmpty()) {
+            Node parent = path.pop();
+            if (node.children.isEmpty()) {
+                parent.children.remove(node.label.charAt(0));
+            } else if (node.children.size() == 1) {
+                Node only = node.children.values().iterator().next();
+                only.label = node.label + only.label;
+                parent.children.put(only.label.charAt(0), only);
+            } else {
+                break;
+            }
+            node = parent;
+        }
+    }
+
+    List<Long> findByPrefix(String prefix, Predicate<Long> filter, int limit) {
+        Node node = root;
+        String rest = prefix;
+        while (!rest.isEmpty()) {
+            Node child = node.children.get(rest.charAt(0));
+            if (child == null) {
+                return Collections.emptyList();
+            }
+            int common = commonPrefixLength(child.label, rest);
+            if (common < rest.length() && common < child.label.length()) {
+                return Collections.emptyList();
+            }
+            node = child;
+            rest = rest.substring(common);
+        }
+
+        Set<Long> result = new LinkedHashSet<>();
+        Deque<Node> stack = new ArrayDeque<>();
+        stack.push(node);
+        while (!stack.isEmpty() && result.size() < limit) {
+            Node current = stack.pop();
+            for (Long id : current.itemIds) {
+                if (result.size() < limit && filter.test(id)) {
+                    result.add(id);
+                }
+            }
+            current.children.descendingMap().values().forEach(stack::push);
+        }
+        return new ArrayList<>(result);
+    }
+
+    private static int commonPrefixLength(String a, String b) {
+        int length = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < length && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        private String label;
+        private final NavigableMap<Character, Node> children = new TreeMap<>();
+        private final Set<Long> itemIds = new TreeSet<>();
+
+        private Node(String label) {
+            this.label = label;
+        }
+    }
+}
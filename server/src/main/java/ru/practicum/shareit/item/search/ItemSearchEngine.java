@@ -0,0 +1,14 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ItemSearchEngine {
+    List<ItemDto> search(String text, int from, int size);
+
+    List<ItemDto> fuzzySearch(String text, int from, int size);
+
+    List<ItemDto> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+}
@@ -0,0 +1,329 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Component
+@Slf4j
+public class ItemSearchIndex {
+    private static final int NAME_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final int maxResults;
+    private final double fuzzyThreshold;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IndexedItem> documents = new HashMap<>();
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<String, Set<Long>> trigramPostings = new HashMap<>();
+    private ItemNameTrie nameTrie = new ItemNameTrie();
+
+    public ItemSearchIndex(ItemRepository itemRepository,
+                           @Value("${shareit.search.max-results:1000}") int maxResults,
+                           @Value("${shareit.search.fuzzy.threshold:0.5}") double fuzzyThreshold) {
+        this.itemRepository = itemRepository;
+        this.maxResults = maxResults;
+        this.fuzzyThreshold = fuzzyThreshold;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            trigramPostings.clear();
+            nameTrie = new ItemNameTrie();
+            Slice<Item> slice = itemRepository.findAllWithRequest(PageRequest.of(0, REBUILD_BATCH_SIZE, Sort.by("id")));
+            slice.forEach(this::put);
+            while (slice.hasNext()) {
+                slice = itemRepository.findAllWithRequest(slice.nextPageable());
+                slice.forEach(this::put);
+            }
+            log.info("Индекс поиска вещей перестроен: {} вещей, {} термов", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            put(item);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexAll(Collection<Item> items) {
+        lock.writeLock().lock();
+        try {
+            items.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void indexAfterCommit(Item item) {
+        indexAfterCommit(List.of(item));
+    }
+
+    public void indexAfterCommit(Collection<Item> items) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            indexAll(items);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                indexAll(items);
+            }
+        });
+    }
+
+    public void removeItem(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeByOwner(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> ownerItems = documents.values().stream()
+                    .filter(doc -> ownerId.equals(doc.ownerId()))
+                    .map(IndexedItem::id)
+                    .toList();
+            ownerItems.forEach(this::remove);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        List<String> queryTokens = tokenize(text);
+        if (queryTokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Double> scores = null;
+            for (String token : queryTokens) {
+                Map<Long, Double> tokenScores = matchPrefix(token);
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    scores.keySet().retainAll(tokenScores.keySet());
+                    scores.replaceAll((id, score) -> score + tokenScores.get(id));
+                }
+                if (scores.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return rank(scores, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<ItemDto> fuzzySearch(String text, int from, int size) {
+        Set<String> queryTrigrams = trigrams(text);
+        if (queryTrigrams.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> common = new HashMap<>();
+            for (String trigram : queryTrigrams) {
+                for (Long id : trigramPostings.getOrDefault(trigram, Collections.emptySet())) {
+                    common.merge(id, 1, Integer::sum);
+                }
+            }
+
+            Map<Long, Double> scores = new HashMap<>();
+            common.forEach((id, count) -> {
+                double similarity = (double) count / queryTrigrams.size();
+                if (similarity >= fuzzyThreshold && documents.get(id).available()) {
+                    scores.put(id, similarity);
+                }
+            });
+            return rank(scores, from, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        String normalized = String.join(" ", words(prefix));
+        if (normalized.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            Set<String> names = new HashSet<>();
+            return nameTrie.findByPrefix(normalized, id -> {
+                        IndexedItem doc = documents.get(id);
+                        return doc.available() && names.add(doc.name());
+                    }, Math.min(size, maxResults)).stream()
+                    .map(id -> documents.get(id).name())
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<ItemDto> rank(Map<Long, Double> scores, int from, int size) {
+        int limit = Math.min(from + size, maxResults);
+        if (scores.isEmpty() || from >= limit) {
+            return Collections.emptyList();
+        }
+
+        Comparator<Map.Entry<Long, Double>> byRelevance = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Double>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Double>> topK = new PriorityQueue<>(limit, byRelevance);
+        for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+            if (topK.size() < limit) {
+                topK.add(entry);
+            } else if (byRelevance.compare(entry, topK.peek()) > 0) {
+                topK.poll();
+                topK.add(entry);
+            }
+        }
+
+        List<Map.Entry<Long, Double>> ranked = new ArrayList<>(topK);
+        ranked.sort(byRelevance.reversed());
+        return ranked.stream()
+                .skip(from)
+                .map(entry -> documents.get(entry.getKey()).toDto())
+                .toList();
+    }
+
+    private Map<Long, Double> matchPrefix(String prefix) {
+        Map<Long, Double> result = new HashMap<>();
+        for (Map<Long, Integer> posting : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            posting.forEach((id, weight) -> {
+                if (documents.get(id).available()) {
+                    result.merge(id, weight.doubleValue(), Math::max);
+                }
+            });
+        }
+        return result;
+    }
+
+    private void put(Item item) {
+        remove(item.getId());
+
+        Map<String, Integer> terms = new HashMap<>();
+        tokenize(item.getDescription()).forEach(token -> terms.merge(token, DESCRIPTION_WEIGHT, Math::max));
+        tokenize(item.getName()).forEach(token -> terms.merge(token, NAME_WEIGHT, Math::max));
+
+        IndexedItem doc = new IndexedItem(item.getId(), item.getName(), item.getDescription(),
+                Boolean.TRUE.equals(item.getAvailable()),
+                item.getOwner() != null ? item.getOwner().getId() : null,
+                item.getRequest() != null ? item.getRequest().getId() : null,
+                terms.keySet(), trigrams(item.getName()));
+        documents.put(doc.id(), doc);
+        terms.forEach((term, weight) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(doc.id(), weight));
+        doc.trigrams().forEach(trigram -> trigramPostings.computeIfAbsent(trigram, t -> new HashSet<>()).add(doc.id()));
+        suggestKeys(doc.name()).forEach(key -> nameTrie.insert(key, doc.id()));
+    }
+
+    private void remove(Long itemId) {
+        IndexedItem previous = documents.remove(itemId);
+        if (previous == null) {
+            return;
+        }
+        for (String term : previous.terms()) {
+            Map<Long, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(itemId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        suggestKeys(previous.name()).forEach(key -> nameTrie.remove(key, itemId));
+        for (String trigram : previous.trigrams()) {
+            Set<Long> posting = trigramPostings.get(trigram);
+            if (posting != null) {
+                posting.remove(itemId);
+                if (posting.isEmpty()) {
+                    trigramPostings.remove(trigram);
+                }
+            }
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        return Arrays.stream(text.toLowerCase().split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static List<String> words(String text) {
+        if (text == null || text.isBlank()) {
+            return Collections.emptyList();
+        }
+        return List.of(text.toLowerCase().trim().split("\\s+"));
+    }
+
+    private static List<String> suggestKeys(String name) {
+        List<String> words = words(name);
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < words.size(); i++) {
+            keys.add(String.join(" ", words.subList(i, words.size())));
+        }
+        return keys;
+    }
+
+    static Set<String> trigrams(String text) {
+        Set<String> result = new HashSet<>();
+        for (String word : tokenize(text)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                result.add(padded.substring(i, i + 3));
+            }
+        }
+        return result;
+    }
+
+    private record IndexedItem(Long id, String name, String description, boolean available,
+                               Long ownerId, Long requestId, Set<String> terms, Set<String> trigrams) {
+        ItemDto toDto() {
+            ItemDto dto = new ItemDto();
+            dto.setId(id);
+            dto.setName(name);
+            dto.setDescription(description);
+            dto.setAvailable(available);
+            dto.setRequestId(requestId);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.repository.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.search.mode", havingValue = "like", matchIfMissing = true)
+public class JpqlItemSearchEngine implements ItemSearchEngine {
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex searchIndex;
+
+    @Override
+    public List<ItemDto> search(String text, int from, int size) {
+        return itemRepository.searchItemsByTxt(text.toLowerCase(),
+                        OffsetPageRequest.of(from, size, Sort.by("id"))).stream()
+                .map(ItemMapper::toDto)
+                .toList();
+    }
+
+    @Override
+    public List<ItemDto> fuzzySearch(String text, int from, int size) {
+        return searchIndex.fuzzySearch(text, from, size);
+    }
+
+    @Override
+    public List<ItemDto> searchFree(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        return itemRepository.searchFreeItemsByTxt(text.toLowerCase(), start, end, BookingStatus.ACTIVE,
+                        OffsetPageRequest.of(from, size, Sort.by("id"))).stream()
+                .map(ItemMapper::toDto)
+                .toList();
+    }
+}
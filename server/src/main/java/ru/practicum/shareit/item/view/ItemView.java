@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.view;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.FieldDefaults;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Entity
+@Table(name = "item_views")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ItemView {
+    @Id
+    @Column(name = "item_id")
+    Long itemId;
+
+    @Column(name = "last_booking")
+    String lastBooking;
+
+    @Column(name = "next_booking")
+    String nextBooking;
+
+    @Column(name = "comments")
+    String comments;
+
+    @Column(name = "comment_count", nullable = false)
+    Integer commentCount;
+
+    @Column(name = "valid_until")
+    LocalDateTime validUntil;
+
+    @Column(name = "updated_at", nullable = false)
+    LocalDateTime updatedAt;
+
+    public boolean isFreshAt(LocalDateTime now) {
+        return validUntil == null || validUntil.isAfter(now);
+    }
+
+    public String contentTag() {
+        String content = lastBooking + "|" + nextBooking + "|" + comments + "|" + commentCount + "|" + validUntil;
+        return Long.toHexString(UUID.nameUUIDFromBytes(content.getBytes(StandardCharsets.UTF_8))
+                .getMostSignificantBits());
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.item.view;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemViewRepository extends JpaRepository<ItemView, Long>, ItemViewRepositoryCustom {
+    @Query("SELECT v.itemId FROM ItemView v WHERE v.validUntil <= :now ORDER BY v.validUntil")
+    List<Long> findExpiredItemIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query(value = "SELECT i.id FROM items i WHERE NOT EXISTS (" +
+            "SELECT 1 FROM item_views v WHERE v.item_id = i.id) ORDER BY i.id", nativeQuery = true)
+    List<Long> findItemIdsWithoutView(Pageable pageable);
+
+    @Modifying
+    @Query(value = "UPDATE item_views SET valid_until = :now WHERE item_id IN (" +
+            "SELECT b.item_id FROM bookings b WHERE b.booker_id = :userId " +
+            "UNION SELECT c.item_id FROM comments c WHERE c.author_id = :userId)", nativeQuery = true)
+    int expireByUserActivity(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
+    @Query(value = "SELECT i.id AS itemId, " +
+            "(SELECT COUNT(*) FROM comments c WHERE c.item_id = i.id) AS commentCount, " +
+            "(SELECT MIN(CASE WHEN b.start_time > :now THEN b.start_time ELSE b.end_time END) " +
+            "FROM bookings b WHERE b.item_id = i.id AND b.status = 'APPROVED' AND b.end_time > :now) AS validUntil " +
+            "FROM items i WHERE i.id IN (:itemIds)", nativeQuery = true)
+    List<ItemViewStats> findStats(@Param("itemIds") Collection<Long> itemIds, @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.item.view;
+
+import java.util.Collection;
+
+public interface ItemViewRepositoryCustom {
+    void upsertAll(Collection<ItemView> views);
+}
@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item.view;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.sql.Timestamp;
+import java.util.Collection;
+
+@Slf4j
+public class ItemViewRepositoryImpl implements ItemViewRepositoryCustom {
+    private static final String COLUMNS =
+            "item_id, last_booking, next_booking, comments, comment_count, valid_until, updated_at";
+    private static final String POSTGRES_UPSERT = "INSERT INTO item_views (" + COLUMNS + ") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT (item_id) DO UPDATE SET " +
+            "last_booking = EXCLUDED.last_booking, next_booking = EXCLUDED.next_booking, " +
+            "comments = EXCLUDED.comments, comment_count = EXCLUDED.comment_count, " +
+            "valid_until = EXCLUDED.valid_until, updated_at = EXCLUDED.updated_at";
+    private static final String MERGE_UPSERT = "MERGE INTO item_views (" + COLUMNS + ") KEY (item_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String upsert;
+
+    public ItemViewRepositoryImpl(JdbcTemplate jdbcTemplate, DataSource dataSource) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.upsert = isPostgres(dataSource) ? POSTGRES_UPSERT : MERGE_UPSERT;
+    }
+
+    @Override
+    public void upsertAll(Collection<ItemView> views) {
+        jdbcTemplate.batchUpdate(upsert, views, views.size(), (ps, view) -> {
+            ps.setLong(1, view.getItemId());
+            ps.setString(2, view.getLastBooking());
+            ps.setString(3, view.getNextBooking());
+            ps.setString(4, view.getComments());
+            ps.setInt(5, view.getCommentCount());
+            ps.setTimestamp(6, view.getValidUntil() == null ? null : Timestamp.valueOf(view.getValidUntil()));
+            ps.setTimestamp(7, Timestamp.valueOf(view.getUpdatedAt()));
+        });
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(product);
+        } catch (MetaDataAccessException e) {
+            log.warn("Не удалось определить тип БД, карточки вещей сохраняются через MERGE", e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package ru.practicum.shareit.item.view;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingMapper;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingsCreatedEvent;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingSummary;
+import ru.practicum.shareit.item.CommentCreatedEvent;
+import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.CommentSummary;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.CommentMapper;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.user.UserChangedEvent;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Slf4j
+public class ItemViewService {
+    private static final TypeReference<List<CommentDtoOut>> COMMENTS_TYPE = new TypeReference<>() {
+    };
+
+    private final ItemViewRepository itemViewRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+    private final ObjectMapper objectMapper;
+    private final int commentsLimit;
+    private final int refreshBatchSize;
+
+    public ItemViewService(ItemViewRepository itemViewRepository,
+                           BookingRepository bookingRepository,
+                           CommentRepository commentRepository,
+                           ObjectMapper objectMapper,
+                           @Value("${shareit.items.comments-limit:10}") int commentsLimit,
+                           @Value("${shareit.item-view.refresh-batch-size:500}") int refreshBatchSize) {
+        this.itemViewRepository = itemViewRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentRepository = commentRepository;
+        this.objectMapper = objectMapper;
+        this.commentsLimit = commentsLimit;
+        this.refreshBatchSize = refreshBatchSize;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingChanged(BookingChangedEvent event) {
+        refreshQuietly(event.itemId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBookingsCreated(BookingsCreatedEvent event) {
+        List<Long> itemIds = event.bookings().stream()
+                .map(BookingChangedEvent::itemId)
+                .distinct()
+                .toList();
+        for (int from = 0; from < itemIds.size(); from += refreshBatchSize) {
+            refreshQuietly(itemIds.subList(from, Math.min(from + refreshBatchSize, itemIds.size())));
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onCommentCreated(CommentCreatedEvent event) {
+        refreshQuietly(event.itemId());
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.item-view.refresh-interval:60000}")
+    @Transactional
+    public void refreshExpired() {
+        List<Long> itemIds = itemViewRepository.findExpiredItemIds(LocalDateTime.now(),
+                PageRequest.of(0, refreshBatchSize));
+        if (!itemIds.isEmpty()) {
+            refresh(itemIds);
+            log.debug("Обновлено карточек вещей по времени: {}", itemIds.size());
+        }
+        List<Long> missing = itemViewRepository.findItemIdsWithoutView(PageRequest.of(0, refreshBatchSize));
+        if (!missing.isEmpty()) {
+            refresh(missing);
+            log.debug("Построено новых карточек вещей: {}", missing.size());
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public ItemDto getItem(Item item) {
+        return getItems(List.of(item)).get(0);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ItemDto> getItems(List<Item> items) {
+        Map<Long, ItemView> views = getFreshViews(items.stream()
+                .map(Item::getId)
+                .toList());
+
+        return items.stream()
+                .map(item -> toDto(item, views.get(item.getId())))
+                .toList();
+    }
+
+    @Transactional(readOnly = true)
+    public ItemView getView(Long itemId) {
+        ItemView view = getFreshViews(List.of(itemId)).get(itemId);
+        if (view == null) {
+            throw new NoSuchElementException("Вещь с ID " + itemId + " не найдена");
+        }
+        return view;
+    }
+
+    private Map<Long, ItemView> getFreshViews(List<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemView> views = itemViewRepository.findAllById(itemIds).stream()
+                .filter(view -> view.isFreshAt(now))
+                .collect(Collectors.toMap(ItemView::getItemId, Function.identity()));
+
+        List<Long> missing = itemIds.stream()
+                .filter(id -> !views.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            compute(missing).forEach(view -> views.put(view.getItemId(), view));
+        }
+        return views;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!event.deleted()) {
+            evictByUser(event.userId());
+        }
+    }
+
+    private void evictByUser(Long userId) {
+        int expired = itemViewRepository.expireByUserActivity(userId, LocalDateTime.now());
+        log.debug("Устарело карточек вещей после изменения пользователя {}: {}", userId, expired);
+    }
+
+    private void refreshQuietly(Long itemId) {
+        refreshQuietly(List.of(itemId));
+    }
+
+    private void refreshQuietly(List<Long> itemIds) {
+        try {
+            refresh(itemIds);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Карточки вещей с id {} не обновлены: {}", itemIds, e.getMessage());
+        }
+    }
+
+    private void refresh(Collection<Long> itemIds) {
+        itemViewRepository.upsertAll(compute(itemIds));
+    }
+
+    private List<ItemView> compute(Collection<Long> itemIds) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<Long, List<BookingSummary>> bookingMap = bookingRepository.findLastAndNextBookings(itemIds, now).stream()
+                .collect(Collectors.groupingBy(BookingSummary::getItemId));
+
+        Map<Long, List<CommentDtoOut>> commentMap = commentRepository.findLatestByItemIds(itemIds, commentsLimit)
+                .stream()
+                .collect(Collectors.groupingBy(CommentSummary::getItemId,
+                        Collectors.mapping(CommentMapper::toDto, Collectors.toList())));
+
+        List<ItemView> views = new ArrayList<>();
+        for (ItemViewStats stats : itemViewRepository.findStats(itemIds, now)) {
+            BookingDtoOut lastBooking = null;
+            BookingDtoOut nextBooking = null;
+            for (BookingSummary summary : bookingMap.getOrDefault(stats.getItemId(), Collections.emptyList())) {
+                if ("LAST".equals(summary.getKind())) {
+                    lastBooking = BookingMapper.toBookingOut(summary, null);
+                } else {
+                    nextBooking = BookingMapper.toBookingOut(summary, null);
+                }
+            }
+            views.add(new ItemView(
+                    stats.getItemId(),
+                    write(lastBooking),
+                    write(nextBooking),
+                    write(commentMap.getOrDefault(stats.getItemId(), Collections.emptyList())),
+                    stats.getCommentCount(),
+                    stats.getValidUntil(),
+                    now
+            ));
+        }
+
+        return views;
+    }
+
+    public ItemDto toDto(Item item, ItemView view) {
+        if (view == null) {
+            throw new NoSuchElementException("Вещь с ID " + item.getId() + " не найдена");
+        }
+        ItemDto itemDto = ItemMapper.toDto(item);
+        BookingDtoOut lastBooking = read(view.getLastBooking(), objectMapper.constructType(BookingDtoOut.class));
+        BookingDtoOut nextBooking = read(view.getNextBooking(), objectMapper.constructType(BookingDtoOut.class));
+        if (lastBooking != null) {
+            lastBooking.setItem(itemDto);
+        }
+        if (nextBooking != null) {
+            nextBooking.setItem(itemDto);
+        }
+        List<CommentDtoOut> comments = read(view.getComments(), objectMapper.getTypeFactory().constructType(COMMENTS_TYPE));
+
+        ItemDto dto = ItemMapper.toItemDtoOut(item, lastBooking,
+                comments == null ? Collections.emptyList() : comments, nextBooking);
+        dto.setCommentCount(view.getCommentCount());
+        return dto;
+    }
+
+    private String write(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сохранить карточку вещи", e);
+        }
+    }
+
+    private <T> T read(String json, JavaType type) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось прочитать карточку вещи", e);
+        }
+    }
+}
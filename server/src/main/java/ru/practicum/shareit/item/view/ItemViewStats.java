@@ -0,0 +1,11 @@
+package ru.practicum.shareit.item.view;
+
+import java.time.LocalDateTime;
+
+public interface ItemViewStats {
+    Long getItemId();
+
+    Integer getCommentCount();
+
+    LocalDateTime getValidUntil();
+}
@@ -6,6 +6,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
@@ -43,8 +44,8 @@ public class ItemRequestController {
     @GetMapping("/{requestId}")
     public ResponseEntity<ItemRequestDto> getItem(
             @PathVariable Long requestId,
-            @RequestHeader("X-Sharer-User-Id") Long userId) {
-        ItemRequestDto itemRequest = requestService.getRequestById(requestId, userId);
-        return ResponseEntity.ok(itemRequest);
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            WebRequest request) {
+        return requestService.getVersionedRequest(requestId, userId).toResponse(request);
     }
 }
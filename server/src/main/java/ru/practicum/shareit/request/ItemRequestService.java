@@ -1,6 +1,7 @@
 package ru.practicum.shareit.request;
 
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.version.Versioned;
 
 import java.util.List;
 
@@ -12,4 +13,6 @@ public interface ItemRequestService {
     List<ItemRequestDto> getAllRequests(Long userId);
 
     ItemRequestDto getRequestById(Long requestId, Long userId);
+
+    Versioned<ItemRequestDto> getVersionedRequest(Long requestId, Long userId);
 }
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -13,6 +14,8 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.version.ResourceVersion;
+import ru.practicum.shareit.version.Versioned;
 
 import java.util.Collections;
 import java.util.List;
@@ -22,6 +25,7 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final UserRepository userRepository;
@@ -29,13 +33,14 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRepository itemRepository;
 
     @Override
+    @Transactional
     public ItemRequestDto createRequest(ItemRequestDto dto, Long userId) {
         User user = findUserById(userId);
 
         ItemRequest itemRequest =  RequestMapper.toEntity(dto, user);
 
         requestRepository.save(itemRequest);
-        return RequestMapper.toDto(itemRequest);
+        return RequestMapper.toDto(itemRequest, Collections.emptyList());
     }
 
     @Override
@@ -68,11 +73,8 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 ));
 
         return itemRequests.stream()
-                .map(request -> {
-                    ItemRequestDto dto = RequestMapper.toDto(request);
-                    dto.setItems(itemsMap.getOrDefault(request.getId(), Collections.emptyList()));
-                    return dto;
-                })
+                .map(request -> RequestMapper.toDto(request,
+                        itemsMap.getOrDefault(request.getId(), Collections.emptyList())))
                 .toList();
     }
 
@@ -80,11 +82,24 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     public ItemRequestDto getRequestById(Long requestId, Long userId) {
         findUserById(userId);
 
-        ItemRequest itemRequest = requestRepository.findById(requestId)
-                .orElseThrow(() -> new NotFoundException("Запрос с id:" + requestId + " не найден"));
+        return enrichWithItems(List.of(findRequestById(requestId))).get(0);
+    }
+
+    @Override
+    public Versioned<ItemRequestDto> getVersionedRequest(Long requestId, Long userId) {
+        findUserById(userId);
+
+        ItemRequest itemRequest = findRequestById(requestId);
+        List<Item> items = itemRepository.findByRequestIds(List.of(requestId));
+        return new Versioned<>(ResourceVersion.of("r", itemRequest).and(items),
+                () -> RequestMapper.toDto(itemRequest, items.stream()
+                        .map(ItemMapper::toDto)
+                        .toList()));
+    }
 
-        ItemRequestDto dto = RequestMapper.toDto(itemRequest);
-        return dto;
+    private ItemRequest findRequestById(Long requestId) {
+        return requestRepository.findById(requestId)
+                .orElseThrow(() -> new NotFoundException("Запрос с id:" + requestId + " не найден"));
     }
 
 
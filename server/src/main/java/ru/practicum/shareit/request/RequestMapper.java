@@ -2,7 +2,6 @@ package ru.practicum.shareit.request;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.dto.ItemDto;
-import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 
@@ -19,11 +18,7 @@ public class RequestMapper {
         return itemRequest;
     }
 
-    public ItemRequestDto toDto(ItemRequest itemRequest) {
-        List<ItemDto> itemsDto = itemRequest.getItems().stream()
-                .map(ItemMapper::toDto)
-                .toList();
-
+    public ItemRequestDto toDto(ItemRequest itemRequest, List<ItemDto> itemsDto) {
         ItemRequestDto itemRequestDto = new ItemRequestDto();
         itemRequestDto.setId(itemRequest.getId());
         itemRequestDto.setDescription(itemRequest.getDescription());
@@ -20,4 +20,8 @@ public class UserMapper {
         user.setEmail(userDto.getEmail());
         return user;
     }
+
+    public UserDto copy(UserDto userDto) {
+        return userDto == null ? null : new UserDto(userDto.getId(), userDto.getName(), userDto.getEmail());
+    }
 }
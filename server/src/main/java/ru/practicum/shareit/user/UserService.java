@@ -1,6 +1,7 @@
 package ru.practicum.shareit.user;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.version.Versioned;
 
 import java.util.List;
 
@@ -9,6 +10,8 @@ public interface UserService {
 
     UserDto getUserById(Long userId);
 
+    Versioned<UserDto> getVersionedUser(Long userId);
+
     UserDto updateUser(Long userId, UserDto upUserDto);
 
     void deleteUser(Long userId);
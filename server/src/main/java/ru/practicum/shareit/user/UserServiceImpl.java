@@ -2,12 +2,16 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.exception.EmailException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.version.ResourceVersion;
+import ru.practicum.shareit.version.Versioned;
 
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -16,10 +20,13 @@ import java.util.stream.Collectors;
 @Service
 @Slf4j
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
+    @Transactional
     public UserDto createUser(String name, String email) {
         if (userRepository.existsByEmail(email)) {
             throw new EmailException("Пользователь с таким email уже существует");
@@ -39,6 +46,14 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    public Versioned<UserDto> getVersionedUser(Long userId) {
+        return userRepository.findById(userId)
+                .map(user -> new Versioned<>(ResourceVersion.of("u", user), () -> UserMapper.toDto(user)))
+                .orElseThrow(() -> new NotFoundException("Пользователь не найден"));
+    }
+
+    @Override
+    @Transactional
     public UserDto updateUser(Long userId, UserDto upUserDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Пользователь не найден"));
@@ -52,13 +67,17 @@ public class UserServiceImpl implements UserService {
             }
             user.setEmail(upUserDto.getEmail());
         }
-        return UserMapper.toDto(userRepository.save(user));
+        UserDto updated = UserMapper.toDto(userRepository.save(user));
+        eventPublisher.publishEvent(new UserChangedEvent(userId, false));
+        return updated;
     }
 
     @Override
+    @Transactional
     public void deleteUser(Long userId) {
         getUserByIdEntity(userId);
         userRepository.deleteById(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId, true));
     }
 
     @Override
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.version;
+
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+public record ResourceVersion(String tag, LocalDateTime lastModified) {
+
+    public static ResourceVersion of(String kind, VersionedEntity... entities) {
+        String tag = Arrays.stream(entities)
+                .map(entity -> String.valueOf(entity.getVersion()))
+                .collect(Collectors.joining(".", kind + "-", ""));
+        LocalDateTime lastModified = Arrays.stream(entities)
+                .map(VersionedEntity::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return new ResourceVersion(tag, lastModified);
+    }
+
+    public ResourceVersion and(Collection<? extends VersionedEntity> entities) {
+        long versionSum = entities.stream()
+                .mapToLong(VersionedEntity::getVersion)
+                .sum();
+        LocalDateTime modified = entities.stream()
+                .map(VersionedEntity::getUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        return and(entities.size() + "." + versionSum, modified);
+    }
+
+    public ResourceVersion and(LocalDateTime modified) {
+        return and(String.valueOf(toEpochMilli(modified)), modified);
+    }
+
+    public ResourceVersion and(String part, LocalDateTime modified) {
+        LocalDateTime latest = lastModified == null || (modified != null && modified.isAfter(lastModified))
+                ? modified : lastModified;
+        return new ResourceVersion(tag + "-" + part, latest);
+    }
+
+    public String etag() {
+        return "\"" + tag + "\"";
+    }
+
+    public boolean isNotModified(WebRequest request) {
+        return lastModified == null
+                ? request.checkNotModified(etag())
+                : request.checkNotModified(etag(), toEpochMilli(lastModified));
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time == null ? 0 : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
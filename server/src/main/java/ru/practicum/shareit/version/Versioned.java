@@ -0,0 +1,16 @@
+package ru.practicum.shareit.version;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+public record Versioned<T>(ResourceVersion version, Supplier<T> body) {
+
+    public ResponseEntity<T> toResponse(WebRequest request) {
+        if (version.isNotModified(request)) {
+            return null;
+        }
+        return ResponseEntity.ok(body.get());
+    }
+}
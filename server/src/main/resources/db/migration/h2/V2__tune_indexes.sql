@@ -0,0 +1,6 @@
+CREATE INDEX bookings_item_status_start_idx ON bookings (item_id, status, start_time);
+CREATE INDEX bookings_booker_start_idx ON bookings (booker_id, start_time DESC, id DESC);
+CREATE INDEX items_owner_id_idx ON items (owner_id, id);
+CREATE INDEX items_request_idx ON items (request_id);
+CREATE INDEX comments_item_created_idx ON comments (item_id, created DESC, id DESC);
+CREATE INDEX item_requests_user_created_idx ON item_requests (user_id, created DESC);
@@ -0,0 +1,9 @@
+DROP INDEX IF EXISTS bookings_item_start_idx;
+DROP INDEX IF EXISTS items_owner_idx;
+
+CREATE INDEX IF NOT EXISTS bookings_item_status_start_idx ON bookings (item_id, status, start_time);
+CREATE INDEX IF NOT EXISTS bookings_booker_start_idx ON bookings (booker_id, start_time DESC, id DESC);
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS item_requests_user_created_idx ON item_requests (user_id, created DESC);
@@ -0,0 +1,22 @@
+ALTER TABLE bookings ALTER COLUMN id TYPE BIGINT;
+ALTER TABLE comments ALTER COLUMN id TYPE BIGINT;
+ALTER SEQUENCE bookings_id_seq AS BIGINT;
+ALTER SEQUENCE comments_id_seq AS BIGINT;
+
+ALTER SEQUENCE users_id_seq RENAME TO users_seq;
+ALTER SEQUENCE item_requests_id_seq RENAME TO item_requests_seq;
+ALTER SEQUENCE items_id_seq RENAME TO items_seq;
+ALTER SEQUENCE bookings_id_seq RENAME TO bookings_seq;
+ALTER SEQUENCE comments_id_seq RENAME TO comments_seq;
+
+ALTER SEQUENCE users_seq INCREMENT BY 50;
+ALTER SEQUENCE item_requests_seq INCREMENT BY 50;
+ALTER SEQUENCE items_seq INCREMENT BY 50;
+ALTER SEQUENCE bookings_seq INCREMENT BY 50;
+ALTER SEQUENCE comments_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE(MAX(id), 0) + 50, false) FROM users;
+SELECT setval('item_requests_seq', COALESCE(MAX(id), 0) + 50, false) FROM item_requests;
+SELECT setval('items_seq', COALESCE(MAX(id), 0) + 50, false) FROM items;
+SELECT setval('bookings_seq', COALESCE(MAX(id), 0) + 50, false) FROM bookings;
+SELECT setval('comments_seq', COALESCE(MAX(id), 0) + 50, false) FROM comments;
@@ -1,8 +1,11 @@
 package ru.practicum.shareit;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,12 +18,17 @@ import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -40,6 +48,14 @@ public class BookingIntegrationTest {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    private QueryCounter queryCounter;
+
     private Long userId;
     private Long ownerId;
     private Long itemId;
@@ -59,6 +75,9 @@ public class BookingIntegrationTest {
         jdbcTemplate.update("DELETE FROM bookings");
         jdbcTemplate.update("DELETE FROM items");
         jdbcTemplate.update("DELETE FROM users");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        intervalIndex.clear();
+        queryCounter = new QueryCounter(entityManagerFactory);
 
         UserDto ownerDto = new UserDto(null, "Pasha Technic", "pasha.technic@example.com");
         ResponseEntity<UserDto> ownerResponse = restTemplate.postForEntity(userBaseUrl, ownerDto, UserDto.class);
@@ -66,7 +85,7 @@ public class BookingIntegrationTest {
         ownerId = Objects.requireNonNull(ownerResponse.getBody()).getId();
         log.info("Создание владельца с ID: {}", ownerId);
 
-        ItemDto itemDto = new ItemDto(null, "Item 1", "Description for Item 1", true, null, null, null, null);
+        ItemDto itemDto = new ItemDto(null, "Item 1", "Description for Item 1", true, null, null, null, null, null);
         ResponseEntity<ItemDto> itemResponse = restTemplate.postForEntity(
                 itemBaseUrl,
                 new HttpEntity<>(itemDto, createHeadersWithUserId(ownerId)),
@@ -100,6 +119,94 @@ public class BookingIntegrationTest {
         log.info("Создано бронирование: {}", createdBooking);
     }
 
+    @Test
+    void createBooking_overlapping_conflict() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        BookingDto first = new BookingDto(itemId, start, start.plusDays(2));
+        ResponseEntity<BookingDtoOut> firstResponse = restTemplate.postForEntity(
+                bookingBaseUrl,
+                new HttpEntity<>(first, createHeadersWithUserId(userId)),
+                BookingDtoOut.class);
+        assertEquals(HttpStatus.CREATED, firstResponse.getStatusCode());
+        bookingId = Objects.requireNonNull(firstResponse.getBody()).getId();
+
+        BookingDto overlapping = new BookingDto(itemId, start.plusDays(1), start.plusDays(3));
+        ResponseEntity<String> conflictResponse = restTemplate.postForEntity(
+                bookingBaseUrl,
+                new HttpEntity<>(overlapping, createHeadersWithUserId(userId)),
+                String.class);
+        assertEquals(HttpStatus.CONFLICT, conflictResponse.getStatusCode());
+
+        BookingDto adjacent = new BookingDto(itemId, start.plusDays(2), start.plusDays(3));
+        ResponseEntity<BookingDtoOut> adjacentResponse = restTemplate.postForEntity(
+                bookingBaseUrl,
+                new HttpEntity<>(adjacent, createHeadersWithUserId(userId)),
+                BookingDtoOut.class);
+        assertEquals(HttpStatus.CREATED, adjacentResponse.getStatusCode());
+
+        restTemplate.exchange(
+                bookingBaseUrl + "/" + bookingId + "?approved=false",
+                HttpMethod.PATCH,
+                new HttpEntity<>(createHeadersWithUserId(ownerId)),
+                BookingDtoOut.class);
+        ResponseEntity<BookingDtoOut> retryResponse = restTemplate.postForEntity(
+                bookingBaseUrl,
+                new HttpEntity<>(new BookingDto(itemId, start, start.plusDays(1)), createHeadersWithUserId(userId)),
+                BookingDtoOut.class);
+        assertEquals(HttpStatus.CREATED, retryResponse.getStatusCode());
+    }
+
+    @Test
+    void createBookings_batch() {
+        ItemDto secondDto = new ItemDto(null, "Item 2", "Description for Item 2", true, null, null, null, null, null);
+        Long secondItemId = Objects.requireNonNull(restTemplate.postForEntity(itemBaseUrl,
+                new HttpEntity<>(secondDto, createHeadersWithUserId(ownerId)), ItemDto.class).getBody()).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDto> bookingDtos = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            Long id = i % 2 == 0 ? itemId : secondItemId;
+            bookingDtos.add(new BookingDto(id, start.plusDays(i), start.plusDays(i + 1)));
+        }
+
+        ResponseEntity<BookingDtoOut[]> response = restTemplate.postForEntity(
+                bookingBaseUrl + "/batch",
+                new HttpEntity<>(bookingDtos, createHeadersWithUserId(userId)),
+                BookingDtoOut[].class);
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        BookingDtoOut[] created = Objects.requireNonNull(response.getBody());
+        assertEquals(60, created.length);
+        assertEquals(60, Arrays.stream(created).map(BookingDtoOut::getId).distinct().count());
+        assertEquals(secondItemId, created[1].getItem().getId());
+        assertTrue(Arrays.stream(created).allMatch(booking -> booking.getStatus() == BookingStatus.WAITING));
+
+        BookingDtoOut[] ownerBookings = restTemplate.exchange(bookingBaseUrl + "/owner?size=100", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(ownerId)), BookingDtoOut[].class).getBody();
+        assertEquals(60, Objects.requireNonNull(ownerBookings).length);
+    }
+
+    @Test
+    void createBookings_batchWithOverlap_conflictAndNothingSaved() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(itemId, start, start.plusDays(2)),
+                new BookingDto(itemId, start.plusDays(3), start.plusDays(4)),
+                new BookingDto(itemId, start.plusDays(1), start.plusDays(3)));
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                bookingBaseUrl + "/batch",
+                new HttpEntity<>(bookingDtos, createHeadersWithUserId(userId)),
+                String.class);
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings", Integer.class));
+        ResponseEntity<BookingDtoOut> retryResponse = restTemplate.postForEntity(
+                bookingBaseUrl,
+                new HttpEntity<>(new BookingDto(itemId, start, start.plusDays(2)), createHeadersWithUserId(userId)),
+                BookingDtoOut.class);
+        assertEquals(HttpStatus.CREATED, retryResponse.getStatusCode());
+    }
+
     @Test
     void confirmBooking_success() {
         BookingDto bookingDto = new BookingDto(itemId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
@@ -190,6 +297,109 @@ public class BookingIntegrationTest {
         log.info("Получены все бронирования владельца: {}", Arrays.toString(bookings));
     }
 
+    @Test
+    void getAllBookings_byStateWithKeysetPagination() {
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < 3; i++) {
+            ItemDto itemDto = new ItemDto(null, "Item " + i, "Description", true, null, null, null, null, null);
+            Long newItemId = Objects.requireNonNull(restTemplate.postForEntity(itemBaseUrl,
+                    new HttpEntity<>(itemDto, createHeadersWithUserId(ownerId)), ItemDto.class).getBody()).getId();
+            BookingDto bookingDto = new BookingDto(newItemId, now.plusDays(i + 1), now.plusDays(i + 2));
+            restTemplate.postForEntity(bookingBaseUrl,
+                    new HttpEntity<>(bookingDto, createHeadersWithUserId(userId)), BookingDtoOut.class);
+        }
+        BookingDto pastDto = new BookingDto(itemId, now.minusDays(3), now.minusDays(2));
+        restTemplate.postForEntity(bookingBaseUrl,
+                new HttpEntity<>(pastDto, createHeadersWithUserId(userId)), BookingDtoOut.class);
+
+        BookingDtoOut[] past = restTemplate.exchange(bookingBaseUrl + "?state=PAST",
+                HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(userId)), BookingDtoOut[].class).getBody();
+        assertNotNull(past);
+        assertEquals(1, past.length);
+        assertEquals(itemId, past[0].getItem().getId());
+
+        BookingDtoOut[] firstPage = restTemplate.exchange(bookingBaseUrl + "?state=FUTURE&size=2",
+                HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(userId)), BookingDtoOut[].class).getBody();
+        assertNotNull(firstPage);
+        assertEquals(2, firstPage.length);
+        assertTrue(firstPage[0].getStart().isAfter(firstPage[1].getStart()));
+
+        BookingDtoOut last = firstPage[1];
+        BookingDtoOut[] secondPage = restTemplate.exchange(bookingBaseUrl + "/owner?state=FUTURE&size=2"
+                        + "&afterStart=" + last.getStart() + "&afterId=" + last.getId(),
+                HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(ownerId)), BookingDtoOut[].class).getBody();
+        assertNotNull(secondPage);
+        assertEquals(1, secondPage.length);
+        assertTrue(secondPage[0].getStart().isBefore(last.getStart()));
+
+        BookingDtoOut[] offsetPage = restTemplate.exchange(bookingBaseUrl + "?state=ALL&from=3&size=2",
+                HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(userId)), BookingDtoOut[].class).getBody();
+        assertNotNull(offsetPage);
+        assertEquals(1, offsetPage.length);
+        assertEquals(past[0].getId(), offsetPage[0].getId());
+    }
+
+    @Test
+    void bookingLists_readProjectionsInOneQuery() {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> bookingDtos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ItemDto itemDto = new ItemDto(null, "Item " + i, "Description", true, null, null, null, null, null);
+            Long newItemId = Objects.requireNonNull(restTemplate.postForEntity(itemBaseUrl,
+                    new HttpEntity<>(itemDto, createHeadersWithUserId(ownerId)), ItemDto.class).getBody()).getId();
+            bookingDtos.add(new BookingDto(newItemId, now.plusDays(i + 1), now.plusDays(i + 2)));
+        }
+        restTemplate.postForEntity(bookingBaseUrl + "/batch",
+                new HttpEntity<>(bookingDtos, createHeadersWithUserId(userId)), BookingDtoOut[].class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        QueryCounter.Measured<BookingDtoOut[]> bookerBookings = queryCounter.measure(() -> restTemplate.exchange(
+                bookingBaseUrl + "?state=ALL", HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(userId)),
+                BookingDtoOut[].class).getBody());
+        assertEquals(5, Objects.requireNonNull(bookerBookings.result()).length);
+        assertEquals("Alex Booker", bookerBookings.result()[0].getBooker().getName());
+        assertEquals("Item 4", bookerBookings.result()[0].getItem().getName());
+        assertTrue(bookerBookings.result()[0].getItem().getAvailable());
+        assertEquals(2, bookerBookings.statements(), bookerBookings.queries());
+        Statistics statistics = queryCounter.statistics();
+        assertEquals(0, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount());
+        assertEquals(0, statistics.getEntityStatistics(Item.class.getName()).getLoadCount());
+
+        BookingDtoOut[] ownerBookings = queryCounter.assertExactly(2, "GET /bookings/owner", () -> restTemplate.exchange(
+                bookingBaseUrl + "/owner?state=FUTURE", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(ownerId)), BookingDtoOut[].class).getBody());
+        assertEquals(5, Objects.requireNonNull(ownerBookings).length);
+
+        BookingDtoOut booking = queryCounter.assertAtMost(2, "GET /bookings/{id}", () -> restTemplate.exchange(
+                bookingBaseUrl + "/" + ownerBookings[0].getId(), HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(ownerId)), BookingDtoOut.class).getBody());
+        assertEquals("Item 4", Objects.requireNonNull(booking).getItem().getName());
+    }
+
+    @Test
+    void bookingLists_queryCountDoesNotGrowWithBookings() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        restTemplate.postForEntity(bookingBaseUrl, new HttpEntity<>(new BookingDto(itemId, start, start.plusDays(1)),
+                createHeadersWithUserId(userId)), BookingDtoOut.class);
+
+        Runnable addBookings = () -> {
+            List<BookingDto> bookingDtos = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                ItemDto itemDto = new ItemDto(null, "Item " + i, "Description", true, null, null, null, null, null);
+                Long newItemId = Objects.requireNonNull(restTemplate.postForEntity(itemBaseUrl,
+                        new HttpEntity<>(itemDto, createHeadersWithUserId(ownerId)), ItemDto.class).getBody()).getId();
+                bookingDtos.add(new BookingDto(newItemId, start, start.plusDays(1)));
+            }
+            restTemplate.postForEntity(bookingBaseUrl + "/batch",
+                    new HttpEntity<>(bookingDtos, createHeadersWithUserId(userId)), BookingDtoOut[].class);
+        };
+
+        queryCounter.assertConstant("GET /bookings", () -> restTemplate.exchange(bookingBaseUrl,
+                HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(userId)), BookingDtoOut[].class), addBookings);
+        queryCounter.assertConstant("GET /bookings/owner", () -> restTemplate.exchange(bookingBaseUrl + "/owner",
+                HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(ownerId)), BookingDtoOut[].class), addBookings);
+    }
+
     private HttpHeaders createHeadersWithUserId(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.set("X-Sharer-User-Id", String.valueOf(userId));
@@ -0,0 +1,149 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingIntervalIndexTest {
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private BookingIntervalIndex intervalIndex;
+    private Item item;
+    private User booker;
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        intervalIndex = new BookingIntervalIndex(bookingRepository, 100, Duration.ofMinutes(10));
+        User owner = new User(1L, "Owner", "owner@email.com");
+        booker = new User(2L, "Booker", "booker@email.com");
+        item = new Item(1L, "Дрель", "Аккумуляторная", true, owner, null);
+        base = LocalDateTime.of(2030, 1, 1, 12, 0);
+    }
+
+    @Test
+    void reserve_loadsActiveBookingsOnceAndRejectsOverlap() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(), any()))
+                .thenReturn(List.of(booking(1L, 0, 2)));
+
+        assertThrows(ConflictException.class, () -> intervalIndex.reserve(booking(2L, 1, 3)));
+        intervalIndex.reserve(booking(3L, 2, 4));
+        assertThrows(ConflictException.class, () -> intervalIndex.reserve(booking(4L, 3, 5)));
+
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(), any());
+    }
+
+    @Test
+    void reserve_ignoresItself() {
+        Booking booking = booking(1L, 0, 2);
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(), any())).thenReturn(List.of(booking));
+
+        assertDoesNotThrow(() -> intervalIndex.reserve(booking));
+    }
+
+    @Test
+    void release_freesInterval() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(), any())).thenReturn(List.of());
+        Booking booking = booking(1L, 0, 2);
+        intervalIndex.reserve(booking);
+
+        intervalIndex.release(booking);
+
+        assertDoesNotThrow(() -> intervalIndex.reserve(booking(2L, 1, 3)));
+    }
+
+    @Test
+    void findFreeSlots_returnsGapsBetweenBookings() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(), any())).thenReturn(List.of(
+                booking(1L, 2, 4), booking(2L, 3, 5), booking(3L, 7, 8), booking(4L, 20, 21)));
+
+        List<FreeSlotDto> slots = intervalIndex.findFreeSlots(item.getId(), base, base.plusDays(10));
+
+        assertEquals(List.of(
+                new FreeSlotDto(base, base.plusDays(2)),
+                new FreeSlotDto(base.plusDays(5), base.plusDays(7)),
+                new FreeSlotDto(base.plusDays(8), base.plusDays(10))), slots);
+    }
+
+    @Test
+    void findFreeSlots_manyIntervals() {
+        List<Booking> bookings = new ArrayList<>();
+        for (long i = 0; i < 500; i++) {
+            bookings.add(booking(i + 1, (int) (i * 2), (int) (i * 2 + 1)));
+        }
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(), any())).thenReturn(bookings);
+
+        List<FreeSlotDto> slots = intervalIndex.findFreeSlots(item.getId(), base.plusDays(100), base.plusDays(106));
+
+        assertEquals(List.of(
+                new FreeSlotDto(base.plusDays(101), base.plusDays(102)),
+                new FreeSlotDto(base.plusDays(103), base.plusDays(104)),
+                new FreeSlotDto(base.plusDays(105), base.plusDays(106))), slots);
+        assertThrows(ConflictException.class, () -> intervalIndex.reserve(booking(1000L, 998, 1000)));
+    }
+
+    @Test
+    void findFreeSlots_loadsOnlyUnfinishedBookingsAndSkipsThePast() {
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(), any()))
+                .thenReturn(List.of());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<FreeSlotDto> slots = intervalIndex.findFreeSlots(item.getId(), now.minusDays(2), now.minusDays(1));
+
+        assertTrue(slots.isEmpty());
+        verify(bookingRepository).findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(),
+                argThat(end -> !end.isBefore(now)));
+    }
+
+    @Test
+    void evictBooker_dropsOnlyItemsBookedByUser() {
+        User owner = item.getOwner();
+        Item otherItem = new Item(2L, "Пила", "Ручная", true, owner, null);
+        User otherBooker = new User(3L, "Other", "other@email.com");
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(), any()))
+                .thenReturn(List.of(booking(1L, 0, 2)));
+        when(bookingRepository.findByItemIdAndStatusInAndEndIsAfter(eq(otherItem.getId()), any(), any()))
+                .thenReturn(List.of(new Booking(2L, otherItem, otherBooker, base, base.plusDays(2),
+                        BookingStatus.APPROVED)));
+        intervalIndex.findFreeSlots(item.getId(), base, base.plusDays(3));
+        intervalIndex.findFreeSlots(otherItem.getId(), base, base.plusDays(3));
+
+        intervalIndex.evictBooker(booker.getId());
+        intervalIndex.findFreeSlots(item.getId(), base, base.plusDays(3));
+        intervalIndex.findFreeSlots(otherItem.getId(), base, base.plusDays(3));
+
+        verify(bookingRepository, times(2)).findByItemIdAndStatusInAndEndIsAfter(eq(item.getId()), any(), any());
+        verify(bookingRepository, times(1)).findByItemIdAndStatusInAndEndIsAfter(eq(otherItem.getId()), any(),
+                any());
+    }
+
+    private Booking booking(Long id, int startDay, int endDay) {
+        return new Booking(id, item, booker, base.plusDays(startDay), base.plusDays(endDay), BookingStatus.WAITING);
+    }
+}
@@ -0,0 +1,153 @@
+package ru.practicum.shareit;
+
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = ShareItApp.class)
+@EnabledIf("ru.practicum.shareit.LocalPostgres#available")
+class BookingOverlapPostgresTest {
+    private static final int CONCURRENT_REQUESTS = 8;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private TestRestTemplate restTemplate;
+    private String baseUrl;
+    private final List<Long> userIds = new ArrayList<>();
+    private Long bookerId;
+    private Long itemId;
+    private LocalDateTime start;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> LocalPostgres.URL);
+        registry.add("spring.datasource.username", () -> LocalPostgres.USERNAME);
+        registry.add("spring.datasource.password", () -> LocalPostgres.PASSWORD);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration/postgres");
+    }
+
+    @BeforeEach
+    void setUp() {
+        HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(
+                HttpClients.custom()
+                        .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                                .setMaxConnPerRoute(CONCURRENT_REQUESTS)
+                                .build())
+                        .build());
+        restTemplate = new TestRestTemplate(new RestTemplateBuilder().requestFactory(() -> factory));
+        baseUrl = "http://localhost:" + port;
+
+        Long ownerId = createUser("Overlap Owner");
+        bookerId = createUser("Overlap Booker");
+        ItemDto itemDto = new ItemDto(null, "Палатка", "Четырехместная", true, null, null, null, null, null);
+        itemId = Objects.requireNonNull(restTemplate.postForEntity(baseUrl + "/items",
+                new HttpEntity<>(itemDto, headers(ownerId)), ItemDto.class).getBody()).getId();
+        start = LocalDateTime.now().plusDays(10).withNano(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userIds.forEach(id -> jdbcTemplate.update("DELETE FROM users WHERE id = ?", id));
+    }
+
+    @Test
+    void createBooking_concurrentOverlaps_onlyOneSucceeds() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+        CountDownLatch ready = new CountDownLatch(CONCURRENT_REQUESTS);
+        try {
+            List<Future<HttpStatusCode>> responses = new ArrayList<>();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                LocalDateTime bookingStart = start.plusHours(i);
+                responses.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    return book(bookingStart, bookingStart.plusDays(1)).getStatusCode();
+                }));
+            }
+
+            List<HttpStatusCode> statuses = new ArrayList<>();
+            for (Future<HttpStatusCode> response : responses) {
+                statuses.add(response.get());
+            }
+            Map<HttpStatusCode, Long> counts = statuses.stream()
+                    .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+            assertEquals(Map.of(HttpStatus.CREATED, 1L, HttpStatus.CONFLICT, CONCURRENT_REQUESTS - 1L), counts);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM bookings WHERE item_id = ?",
+                Integer.class, itemId));
+    }
+
+    @Test
+    void createBooking_overlapOnlyVisibleToDatabase_conflict() {
+        restTemplate.exchange(baseUrl + "/items/" + itemId + "/free-slots?from=" + start + "&to=" + start.plusDays(5),
+                HttpMethod.GET, new HttpEntity<>(headers(bookerId)), String.class);
+        jdbcTemplate.update("INSERT INTO bookings (item_id, booker_id, start_time, end_time, status) " +
+                "VALUES (?, ?, ?, ?, 'APPROVED')", itemId, bookerId, start, start.plusDays(2));
+
+        ResponseEntity<String> response = book(start.plusDays(1), start.plusDays(3));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode(), response.getBody());
+    }
+
+    private ResponseEntity<String> book(LocalDateTime from, LocalDateTime to) {
+        return restTemplate.postForEntity(baseUrl + "/bookings",
+                new HttpEntity<>(new BookingDto(itemId, from, to), headers(bookerId)), String.class);
+    }
+
+    private Long createUser(String name) {
+        UserDto userDto = new UserDto(null, name, "overlap" + System.nanoTime() + "@example.com");
+        Long id = Objects.requireNonNull(restTemplate.postForEntity(baseUrl + "/users", userDto, UserDto.class)
+                .getBody()).getId();
+        userIds.add(id);
+        return id;
+    }
+
+    private static HttpHeaders headers(Long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+}
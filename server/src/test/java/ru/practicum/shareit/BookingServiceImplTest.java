@@ -5,22 +5,34 @@ import jakarta.validation.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.Sort;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.booking.BookingFilter;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingServiceImpl;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.dto.BookingRow;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.cache.ResultCache;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserRepository;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -39,6 +51,12 @@ class BookingServiceImplTest {
     private ItemRepository itemRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private BookingIntervalIndex intervalIndex;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Spy
+    private ResultCache resultCache = new ResultCache(100, Duration.ofMinutes(1));
 
     @InjectMocks
     private BookingServiceImpl bookingService;
@@ -70,6 +88,7 @@ class BookingServiceImplTest {
         assertEquals(bookingDto.getStart(), result.getStart());
         assertEquals(bookingDto.getEnd(), result.getEnd());
         assertEquals(BookingStatus.WAITING, result.getStatus());
+        verify(intervalIndex).reserve(booking);
     }
 
     @Test
@@ -89,6 +108,28 @@ class BookingServiceImplTest {
         assertThrows(NotFoundException.class, () -> bookingService.createBooking(owner.getId(), bookingDto));
     }
 
+    @Test
+    void createBooking_whenOverlapConstraintViolated_thenConflict() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any())).thenReturn(booking);
+        doThrow(new DataIntegrityViolationException("insert failed", new SQLException(
+                "ОШИБКА: конфликтующее значение ключа нарушает ограничение-исключение", "23P01")))
+                .when(bookingRepository).flush();
+
+        assertThrows(ConflictException.class, () -> bookingService.createBooking(user.getId(), bookingDto));
+        verify(intervalIndex, never()).reserve(any());
+    }
+
+    @Test
+    void createBooking_whenOtherConstraintViolated_thenRethrow() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(item.getId())).thenReturn(Optional.of(item));
+        when(bookingRepository.save(any())).thenThrow(new DataIntegrityViolationException("fk violation"));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.createBooking(user.getId(), bookingDto));
+    }
+
     @Test
     void confirmBooking_success() {
         when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
@@ -138,10 +179,9 @@ class BookingServiceImplTest {
     @Test
     void getAllBookings_success() {
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(bookingRepository.findByBookerId(user.getId(), Sort.by(Sort.Order.desc("start"))))
-                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findBookings(any())).thenReturn(Collections.emptyList());
 
-        List<BookingDtoOut> result = bookingService.getAllBookings(user.getId(), "ALL");
+        List<BookingDtoOut> result = bookingService.getAllBookings(user.getId(), "ALL", 0, 10, null, null);
 
         assertTrue(result.isEmpty(), "Список бронирований должен быть пустым");
     }
@@ -149,12 +189,40 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsForOwner_success() {
         when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
-        when(bookingRepository.findByItemOwnerId(owner.getId(), Sort.by(Sort.Order.desc("start"))))
-                .thenReturn(Collections.emptyList());
+        when(bookingRepository.findBookings(any())).thenReturn(Collections.emptyList());
 
-        List<BookingDtoOut> result = bookingService.getAllBookingsForOwner(owner.getId(), "ALL");
+        List<BookingDtoOut> result = bookingService.getAllBookingsForOwner(owner.getId(), "ALL", 0, 10, null, null);
 
         assertTrue(result.isEmpty(), "Список бронирований владельца должен быть пустым");
+        ArgumentCaptor<BookingFilter> captor = ArgumentCaptor.forClass(BookingFilter.class);
+        verify(bookingRepository).findBookings(captor.capture());
+        assertEquals(owner.getId(), captor.getValue().ownerId());
+        assertNull(captor.getValue().bookerId());
+    }
+
+    @Test
+    void getAllBookings_cachedUntilBookingChanged() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(bookingRepository.findBookings(any())).thenReturn(List.of(new BookingRow(booking.getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus(), item.getId(), item.getName(),
+                item.getDescription(), item.getAvailable(), null, user.getId(), user.getName(), user.getEmail())));
+
+        bookingService.getAllBookings(user.getId(), "ALL", 0, 10, null, null);
+        List<BookingDtoOut> cached = bookingService.getAllBookings(user.getId(), "all", 0, 10, null, null);
+
+        assertEquals(1, cached.size());
+        verify(bookingRepository, times(1)).findBookings(any());
+
+        bookingService.getAllBookings(user.getId(), "ALL", 10, 10, null, null);
+        verify(bookingRepository, times(2)).findBookings(any());
+
+        resultCache.onBookingChanged(new BookingChangedEvent(item.getId(), owner.getId(), owner.getId()));
+        bookingService.getAllBookings(user.getId(), "ALL", 0, 10, null, null);
+        verify(bookingRepository, times(2)).findBookings(any());
+
+        resultCache.onBookingChanged(new BookingChangedEvent(item.getId(), user.getId(), owner.getId()));
+        bookingService.getAllBookings(user.getId(), "ALL", 0, 10, null, null);
+        verify(bookingRepository, times(3)).findBookings(any());
     }
 
     @Test
@@ -183,14 +251,27 @@ class BookingServiceImplTest {
     @Test
     void getAllBookings_withDifferentStates() {
         when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        when(bookingRepository.findBookings(any())).thenReturn(Collections.emptyList());
+        ArgumentCaptor<BookingFilter> captor = ArgumentCaptor.forClass(BookingFilter.class);
         for (String state : List.of("CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED")) {
-            when(bookingRepository.findByBookerIdAndStatus(user.getId(), BookingStatus.valueOf(state), Sort.by(Sort.Order.desc("start"))))
-                    .thenReturn(Collections.emptyList());
-            List<BookingDtoOut> result = bookingService.getAllBookings(user.getId(), state);
+            List<BookingDtoOut> result = bookingService.getAllBookings(user.getId(), state.toLowerCase(), 5, 20, null, null);
             assertTrue(result.isEmpty(), "Список бронирований должен быть пустым для состояния " + state);
+            verify(bookingRepository, atLeastOnce()).findBookings(captor.capture());
+            BookingFilter filter = captor.getValue();
+            assertEquals(BookingState.valueOf(state), filter.state());
+            assertEquals(user.getId(), filter.bookerId());
+            assertEquals(5, filter.from());
+            assertEquals(20, filter.size());
         }
     }
 
+    @Test
+    void getAllBookings_whenUnknownState_thenThrowException() {
+        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
+        assertThrows(ValidationException.class,
+                () -> bookingService.getAllBookings(user.getId(), "UNSUPPORTED", 0, 10, null, null));
+    }
+
     @Test
     void confirmBooking_whenApprovedNull_thenThrowException() {
         when(userRepository.findById(owner.getId())).thenReturn(Optional.of(owner));
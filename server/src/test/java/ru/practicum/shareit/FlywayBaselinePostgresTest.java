@@ -0,0 +1,71 @@
+package ru.practicum.shareit;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@EnabledIf("ru.practicum.shareit.LocalPostgres#available")
+class FlywayBaselinePostgresTest {
+    private static final String SCHEMA = "legacy_upgrade";
+
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource(LocalPostgres.URL, LocalPostgres.USERNAME, LocalPostgres.PASSWORD);
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+        jdbcTemplate.execute("CREATE SCHEMA " + SCHEMA);
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setSchema(SCHEMA);
+            ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/legacy-schema-postgres.sql"));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP SCHEMA IF EXISTS " + SCHEMA + " CASCADE");
+    }
+
+    @Test
+    void migrate_legacySchema_appliesInitialMigration() throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(new ClassPathResource("application.properties"));
+        Flyway flyway = Flyway.configure()
+                .dataSource(dataSource)
+                .schemas(SCHEMA)
+                .locations(properties.getProperty("spring.flyway.locations"))
+                .baselineOnMigrate(Boolean.parseBoolean(properties.getProperty("spring.flyway.baseline-on-migrate")))
+                .baselineVersion(properties.getProperty("spring.flyway.baseline-version"))
+                .load();
+
+        flyway.migrate();
+
+        assertEquals("4", flyway.info().current().getVersion().getVersion());
+        assertEquals(1, count("SELECT count(*) FROM information_schema.tables "
+                + "WHERE table_schema = ? AND table_name = 'item_views'"));
+        assertEquals(1, count("SELECT count(*) FROM information_schema.columns "
+                + "WHERE table_schema = ? AND table_name = 'items' AND column_name = 'search_vector'"));
+        assertEquals(1, count("SELECT count(*) FROM pg_indexes "
+                + "WHERE schemaname = ? AND indexname = 'items_name_trgm_idx'"));
+        assertEquals(1, count("SELECT count(*) FROM pg_constraint c JOIN pg_namespace n ON n.oid = c.connamespace "
+                + "WHERE n.nspname = ? AND c.conname = 'bookings_no_overlap'"));
+    }
+
+    private int count(String sql) {
+        return jdbcTemplate.queryForObject(sql, Integer.class, SCHEMA);
+    }
+}
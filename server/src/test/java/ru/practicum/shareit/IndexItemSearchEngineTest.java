@@ -0,0 +1,69 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.IndexItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.User;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndexItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private IndexItemSearchEngine searchEngine;
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1);
+    private final LocalDateTime end = start.plusDays(1);
+
+    @BeforeEach
+    void setUp() {
+        ItemSearchIndex searchIndex = new ItemSearchIndex(itemRepository, 1000, 0.5);
+        User owner = new User(1L, "Owner", "owner@email.com");
+        LongStream.rangeClosed(1, 120)
+                .forEach(id -> searchIndex.index(new Item(id, "Дрель " + id, "Дрель", true, owner, null)));
+        searchEngine = new IndexItemSearchEngine(searchIndex, bookingRepository, 1000);
+
+        when(bookingRepository.findBusyItemIds(anyCollection(), any(), any(), anyCollection()))
+                .thenAnswer(invocation -> invocation.<Collection<Long>>getArgument(0).stream()
+                        .filter(id -> id % 2 == 0)
+                        .toList());
+    }
+
+    @Test
+    void searchFree_pagesOverFreeItemsOnly() {
+        List<ItemDto> firstPage = searchEngine.searchFree("дрель", start, end, 0, 3);
+
+        assertEquals(List.of(1L, 3L, 5L), firstPage.stream().map(ItemDto::getId).toList());
+        verify(bookingRepository, times(1)).findBusyItemIds(anyCollection(), any(), any(), anyCollection());
+    }
+
+    @Test
+    void searchFree_fetchesMoreCandidatesUntilPageIsFilled() {
+        List<ItemDto> page = searchEngine.searchFree("дрель", start, end, 55, 10);
+
+        assertEquals(List.of(111L, 113L, 115L, 117L, 119L), page.stream().map(ItemDto::getId).toList());
+    }
+}
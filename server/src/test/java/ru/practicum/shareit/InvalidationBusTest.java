@@ -0,0 +1,78 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import ru.practicum.shareit.booking.BookingChangedEvent;
+import ru.practicum.shareit.cache.InvalidationMessage;
+import ru.practicum.shareit.cache.LocalCacheInvalidator;
+import ru.practicum.shareit.cache.PostgresInvalidationBus;
+import ru.practicum.shareit.user.UserChangedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class InvalidationBusTest {
+    private final List<PostgresInvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        buses.forEach(PostgresInvalidationBus::stop);
+    }
+
+    @Test
+    void message_roundTrip() {
+        InvalidationMessage message = new InvalidationMessage("node", InvalidationMessage.Type.BOOKING, 1L, 2L, 3L);
+        InvalidationMessage user = new InvalidationMessage("node", InvalidationMessage.Type.USER_DELETED,
+                null, 5L, null);
+
+        assertEquals(message, InvalidationMessage.decode(message.encode()));
+        assertEquals(user, InvalidationMessage.decode(user.encode()));
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode("node;BOOKING"));
+    }
+
+    @Test
+    @EnabledIf("ru.practicum.shareit.LocalPostgres#available")
+    void notify_reachesOtherNodesOnly() {
+        LocalCacheInvalidator local = mock(LocalCacheInvalidator.class);
+        LocalCacheInvalidator remote = mock(LocalCacheInvalidator.class);
+        PostgresInvalidationBus localBus = startBus(local);
+        startBus(remote);
+
+        localBus.onBookingChanged(new BookingChangedEvent(10L, 20L, 30L));
+        localBus.onUserChanged(new UserChangedEvent(20L, true));
+
+        verify(remote, timeout(5000)).apply(argThat(m -> m.type() == InvalidationMessage.Type.BOOKING
+                && m.itemId() == 10L && m.userId() == 20L && m.ownerId() == 30L));
+        verify(remote, timeout(5000)).apply(argThat(m -> m.type() == InvalidationMessage.Type.USER_DELETED
+                && m.userId() == 20L));
+        verify(local, never()).apply(any());
+    }
+
+    private PostgresInvalidationBus startBus(LocalCacheInvalidator invalidator) {
+        DataSourceProperties properties = new DataSourceProperties();
+        properties.setUrl(LocalPostgres.URL);
+        properties.setUsername(LocalPostgres.USERNAME);
+        properties.setPassword(LocalPostgres.PASSWORD);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(LocalPostgres.URL,
+                LocalPostgres.USERNAME, LocalPostgres.PASSWORD));
+
+        PostgresInvalidationBus bus = new PostgresInvalidationBus(jdbcTemplate, properties, invalidator,
+                "shareit_invalidation_test");
+        buses.add(bus);
+        bus.start();
+        try {
+            Thread.sleep(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return bus;
+    }
+}
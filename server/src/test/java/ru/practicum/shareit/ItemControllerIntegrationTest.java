@@ -1,8 +1,10 @@
 package ru.practicum.shareit;
 
+import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.hc.client5.http.classic.HttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -18,17 +20,28 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.interval.BookingIntervalIndex;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.CommentCreatedEvent;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
+import ru.practicum.shareit.item.dto.FreeSlotDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.view.ItemViewService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -48,6 +61,26 @@ class ItemControllerIntegrationTest {
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ItemViewService itemViewService;
+
+    @Autowired
+    private ItemSearchIndex searchIndex;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private QueryCounter queryCounter;
+
     private Long userId;
     private Long itemId;
     private Integer bookingId;
@@ -68,6 +101,10 @@ class ItemControllerIntegrationTest {
         jdbcTemplate.update("DELETE FROM items");
         jdbcTemplate.update("DELETE FROM item_requests");
         jdbcTemplate.update("DELETE FROM users");
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        queryCounter = new QueryCounter(entityManagerFactory);
+        intervalIndex.clear();
+        searchIndex.rebuild();
 
         UserDto userDto = new UserDto(null, "Pasha Technic", "pasha.technic@example.com");
         ResponseEntity<UserDto> userResponse = restTemplate.postForEntity(userBaseUrl, userDto, UserDto.class);
@@ -75,7 +112,7 @@ class ItemControllerIntegrationTest {
         log.info("Создание пользователя с ID: {}", userId);
 
         ItemDto itemDto = new ItemDto(null, "Item 1", "Description for Item 1", true,
-                null, null, null, null);
+                null, null, null, null, null);
         ResponseEntity<ItemDto> itemResponse = restTemplate.postForEntity(
                 itemBaseUrl,
                 new HttpEntity<>(itemDto, createHeadersWithUserId(userId)),
@@ -88,7 +125,7 @@ class ItemControllerIntegrationTest {
     @Test
     void createItem_success() {
         ItemDto itemDto = new ItemDto(null, "New Item", "Description for New Item", true,
-                null, null, null, null);
+                null, null, null, null, null);
         ResponseEntity<ItemDto> response = restTemplate.postForEntity(
                 itemBaseUrl,
                 new HttpEntity<>(itemDto, createHeadersWithUserId(userId)),
@@ -104,10 +141,78 @@ class ItemControllerIntegrationTest {
         log.info("Created item: {}", createdItem);
     }
 
+    @Test
+    void createItems_batchInsertsInFewStatements() {
+        List<ItemDto> itemDtos = IntStream.rangeClosed(1, 120)
+                .mapToObj(i -> new ItemDto(null, "Batch item " + i, "Description " + i, true,
+                        null, null, null, null, null))
+                .toList();
+
+        ResponseEntity<ItemDto[]> response = queryCounter.assertAtMost(10, "POST /items/batch",
+                () -> restTemplate.postForEntity(itemBaseUrl + "/batch",
+                        new HttpEntity<>(itemDtos, createHeadersWithUserId(userId)), ItemDto[].class));
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        ItemDto[] created = Objects.requireNonNull(response.getBody());
+        assertEquals(120, created.length);
+        assertEquals(120, Arrays.stream(created).map(ItemDto::getId).distinct().count());
+        assertEquals("Batch item 120", created[119].getName());
+        assertEquals(120, queryCounter.statistics().getEntityInsertCount());
+
+        ItemDto[] ownerItems = restTemplate.exchange(itemBaseUrl + "?size=200", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto[].class).getBody();
+        assertEquals(121, Objects.requireNonNull(ownerItems).length);
+    }
+
+    @Test
+    void createItems_batchWithUnknownRequest_notFound() {
+        List<ItemDto> itemDtos = List.of(
+                new ItemDto(null, "Batch item", "Description", true, null, null, null, null, null),
+                new ItemDto(null, "Requested item", "Description", true, null, null, null, null, 999L));
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                itemBaseUrl + "/batch",
+                new HttpEntity<>(itemDtos, createHeadersWithUserId(userId)),
+                String.class);
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class));
+    }
+
+    @Test
+    void createItems_batchFailingOnFlush_notIndexed() {
+        List<ItemDto> itemDtos = List.of(
+                new ItemDto(null, "Phantom item", "Description", true, null, null, null, null, null),
+                new ItemDto(null, "Phantom " + "x".repeat(300), "Description", true, null, null, null, null, null));
+
+        ResponseEntity<String> response = restTemplate.postForEntity(
+                itemBaseUrl + "/batch",
+                new HttpEntity<>(itemDtos, createHeadersWithUserId(userId)),
+                String.class);
+
+        assertNotEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items", Integer.class));
+        String[] phantoms = restTemplate.exchange(itemBaseUrl + "/suggest?prefix=phantom", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), String[].class).getBody();
+        assertArrayEquals(new String[0], phantoms);
+    }
+
+    @Test
+    void deleteOwner_rolledBack_keepsItemsIndexed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.deleteUser(userId);
+            status.setRollbackOnly();
+        });
+
+        String[] suggestions = restTemplate.exchange(itemBaseUrl + "/suggest?prefix=item", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), String[].class).getBody();
+        assertArrayEquals(new String[]{"Item 1"}, suggestions);
+    }
+
     @Test
     void updateItem_success() {
         ItemDto updateDto = new ItemDto(null, "Updated Item", "Updated Description", null,
-                null, null, null, null);
+                null, null, null, null, null);
         ResponseEntity<ItemDto> response = restTemplate.exchange(
                 itemBaseUrl + "/" + itemId,
                 HttpMethod.PATCH,
@@ -124,6 +229,25 @@ class ItemControllerIntegrationTest {
         log.info("Обнавление вещи: {}", updatedItem);
     }
 
+    @Test
+    void updateItem_rolledBack_notIndexed() {
+        ItemDto updateDto = new ItemDto(null, "Phantom " + "x".repeat(300), null, null,
+                null, null, null, null, null);
+        ResponseEntity<String> response = restTemplate.exchange(
+                itemBaseUrl + "/" + itemId,
+                HttpMethod.PATCH,
+                new HttpEntity<>(updateDto, createHeadersWithUserId(userId)),
+                String.class);
+        assertNotEquals(HttpStatus.OK, response.getStatusCode());
+
+        String[] suggestions = restTemplate.exchange(itemBaseUrl + "/suggest?prefix=item", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), String[].class).getBody();
+        assertArrayEquals(new String[]{"Item 1"}, suggestions);
+        String[] phantoms = restTemplate.exchange(itemBaseUrl + "/suggest?prefix=phantom", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), String[].class).getBody();
+        assertArrayEquals(new String[0], phantoms);
+    }
+
     @Test
     void getItemById_success() {
         ResponseEntity<ItemDto> response = restTemplate.exchange(
@@ -236,6 +360,444 @@ class ItemControllerIntegrationTest {
         log.info("Найденыш: {}", Arrays.toString(items));
     }
 
+    @Test
+    void searchItems_pagesByOffset() {
+        for (int i = 2; i <= 4; i++) {
+            ItemDto itemDto = new ItemDto(null, "Item " + i, "Description for Item " + i, true,
+                    null, null, null, null, null);
+            restTemplate.postForEntity(itemBaseUrl, new HttpEntity<>(itemDto, createHeadersWithUserId(userId)),
+                    ItemDto.class);
+        }
+
+        ItemDto[] items = restTemplate.exchange(itemBaseUrl + "/search?text=Item&from=1&size=2", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto[].class).getBody();
+        assertNotNull(items);
+        assertEquals(List.of("Item 2", "Item 3"), Arrays.stream(items).map(ItemDto::getName).toList());
+
+        ItemDto[] owned = restTemplate.exchange(itemBaseUrl + "?from=3&size=2", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto[].class).getBody();
+        assertNotNull(owned);
+        assertEquals(List.of("Item 4"), Arrays.stream(owned).map(ItemDto::getName).toList());
+
+        ItemDto[] afterFirst = restTemplate.exchange(itemBaseUrl + "?from=1&size=2&afterId=" + itemId, HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto[].class).getBody();
+        assertNotNull(afterFirst);
+        assertEquals(List.of("Item 2", "Item 3"), Arrays.stream(afterFirst).map(ItemDto::getName).toList());
+
+        for (String params : List.of("size=0", "from=-1")) {
+            ResponseEntity<String> response = restTemplate.exchange(itemBaseUrl + "/search?text=Item&" + params,
+                    HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(userId)), String.class);
+            assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode(), params);
+        }
+    }
+
+    @Test
+    void searchItems_fuzzy_success() {
+        ResponseEntity<ItemDto[]> response = restTemplate.exchange(
+                itemBaseUrl + "/search?text=Iten&fuzzy=true&size=1000",
+                HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)),
+                ItemDto[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode(), "Вещь не найдена: " + Arrays.toString(response.getBody()));
+        ItemDto[] items = response.getBody();
+        assertNotNull(items);
+        assertTrue(Arrays.stream(items).anyMatch(item -> itemId.equals(item.getId())));
+    }
+
+    @Test
+    void searchItems_freeInPeriod_excludesBookedItems() {
+        UserDto bookerDto = new UserDto(null, "Free Booker", "free.booker@example.com");
+        ResponseEntity<UserDto> bookerResponse = restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class);
+        Long bookerId = Objects.requireNonNull(bookerResponse.getBody()).getId();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(10).withNano(0);
+        LocalDateTime end = start.plusDays(2);
+        BookingDto bookingDto = new BookingDto(itemId, start, end);
+        ResponseEntity<BookingDtoOut> bookingResponse = restTemplate.postForEntity(
+                bookingBaseUrl,
+                new HttpEntity<>(bookingDto, createHeadersWithUserId(bookerId)),
+                BookingDtoOut.class);
+        assertEquals(HttpStatus.CREATED, bookingResponse.getStatusCode());
+
+        ItemDto[] busy = restTemplate.exchange(
+                itemBaseUrl + "/search?text=item&size=1000&start=" + start.plusDays(1) + "&end=" + end.plusDays(1),
+                HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)),
+                ItemDto[].class).getBody();
+        assertNotNull(busy);
+        assertTrue(Arrays.stream(busy).noneMatch(item -> itemId.equals(item.getId())));
+
+        ItemDto[] free = restTemplate.exchange(
+                itemBaseUrl + "/search?text=item&size=1000&start=" + end + "&end=" + end.plusDays(1),
+                HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)),
+                ItemDto[].class).getBody();
+        assertNotNull(free);
+        assertTrue(Arrays.stream(free).anyMatch(item -> itemId.equals(item.getId())));
+    }
+
+    @Test
+    void searchItems_freeInPeriod_invalidPeriod() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+        ResponseEntity<String> response = restTemplate.exchange(
+                itemBaseUrl + "/search?text=item&start=" + start + "&end=" + start.minusHours(1),
+                HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)),
+                String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    @Test
+    void getFreeSlots_success() {
+        UserDto bookerDto = new UserDto(null, "Slot Booker", "slot.booker@example.com");
+        ResponseEntity<UserDto> bookerResponse = restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class);
+        Long bookerId = Objects.requireNonNull(bookerResponse.getBody()).getId();
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1).withNano(0);
+        BookingDto bookingDto = new BookingDto(itemId, from.plusDays(1), from.plusDays(2));
+        restTemplate.postForEntity(bookingBaseUrl,
+                new HttpEntity<>(bookingDto, createHeadersWithUserId(bookerId)), BookingDtoOut.class);
+
+        ResponseEntity<FreeSlotDto[]> response = restTemplate.exchange(
+                itemBaseUrl + "/" + itemId + "/free-slots?from=" + from + "&to=" + from.plusDays(3),
+                HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)),
+                FreeSlotDto[].class);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        FreeSlotDto[] slots = response.getBody();
+        assertNotNull(slots);
+        assertEquals(2, slots.length);
+        assertEquals(new FreeSlotDto(from, from.plusDays(1)), slots[0]);
+        assertEquals(new FreeSlotDto(from.plusDays(2), from.plusDays(3)), slots[1]);
+    }
+
+    @Test
+    void getItemsByOwner_withBookingsCommentsAndPaging() {
+        UserDto bookerDto = new UserDto(null, "Owner Booker", "owner.booker@example.com");
+        ResponseEntity<UserDto> bookerResponse = restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class);
+        Long bookerId = Objects.requireNonNull(bookerResponse.getBody()).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        Long pastId = approvedBooking(bookerId, now.minusDays(5), now.minusDays(4));
+        Long lastId = approvedBooking(bookerId, now.minusDays(3), now.minusDays(2));
+        Long nextId = approvedBooking(bookerId, now.plusDays(2), now.plusDays(3));
+        approvedBooking(bookerId, now.plusDays(5), now.plusDays(6));
+        restTemplate.postForEntity(itemBaseUrl + "/" + itemId + "/comment",
+                new HttpEntity<>(new CommentDto("Отличная вещь"), createHeadersWithUserId(bookerId)),
+                CommentDtoOut.class);
+        for (int i = 2; i <= 3; i++) {
+            ItemDto itemDto = new ItemDto(null, "Item " + i, "Description for Item " + i, true,
+                    null, null, null, null, null);
+            restTemplate.postForEntity(itemBaseUrl, new HttpEntity<>(itemDto, createHeadersWithUserId(userId)),
+                    ItemDto.class);
+        }
+
+        ItemDto[] firstPage = restTemplate.exchange(itemBaseUrl + "?size=2", HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto[].class).getBody();
+        assertNotNull(firstPage);
+        assertEquals(2, firstPage.length);
+        ItemDto item = firstPage[0];
+        assertEquals(itemId, item.getId());
+        assertEquals(lastId, item.getLastBooking().getId());
+        assertEquals(bookerId, item.getLastBooking().getBooker().getId());
+        assertEquals(nextId, item.getNextBooking().getId());
+        assertNotEquals(pastId, item.getLastBooking().getId());
+        assertEquals(1, item.getComments().size());
+        assertEquals("Owner Booker", item.getComments().get(0).getAuthorName());
+
+        ItemDto[] secondPage = restTemplate.exchange(itemBaseUrl + "?size=2&afterId=" + firstPage[1].getId(),
+                HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto[].class).getBody();
+        assertNotNull(secondPage);
+        assertEquals(1, secondPage.length);
+        assertEquals("Item 3", secondPage[0].getName());
+        assertNull(secondPage[0].getLastBooking());
+    }
+
+    @Test
+    void getItemById_readsItemFromSecondLevelCache() {
+        UserDto bookerDto = new UserDto(null, "Query Booker", "query.booker@example.com");
+        ResponseEntity<UserDto> bookerResponse = restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class);
+        Long bookerId = Objects.requireNonNull(bookerResponse.getBody()).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        Long lastId = approvedBooking(bookerId, now.minusDays(3), now.minusDays(2));
+        Long nextId = approvedBooking(bookerId, now.plusDays(2), now.plusDays(3));
+        approvedBooking(bookerId, now.plusDays(5), now.plusDays(6));
+        restTemplate.postForEntity(itemBaseUrl + "/" + itemId + "/comment",
+                new HttpEntity<>(new CommentDto("Хорошая вещь"), createHeadersWithUserId(bookerId)),
+                CommentDtoOut.class);
+
+        ItemDto item = queryCounter.assertExactly(1, "GET /items/{id}", () -> restTemplate.exchange(
+                itemBaseUrl + "/" + itemId, HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto.class).getBody());
+
+        assertTrue(queryCounter.statistics().getSecondLevelCacheHitCount() > 0);
+        assertNotNull(item);
+        assertEquals(lastId, item.getLastBooking().getId());
+        assertEquals("Query Booker", item.getLastBooking().getBooker().getName());
+        assertEquals(itemId, item.getLastBooking().getItem().getId());
+        assertEquals(nextId, item.getNextBooking().getId());
+        assertEquals(BookingStatus.APPROVED, item.getNextBooking().getStatus());
+        assertEquals(1, item.getComments().size());
+        assertEquals(1, item.getCommentCount());
+    }
+
+    @Test
+    void getItemById_coldCacheStaysWithinBudget() {
+        UserDto bookerDto = new UserDto(null, "Cold Booker", "cold.booker@example.com");
+        Long bookerId = Objects.requireNonNull(restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class)
+                .getBody()).getId();
+        LocalDateTime now = LocalDateTime.now();
+        approvedBooking(bookerId, now.minusDays(3), now.minusDays(2));
+        approvedBooking(bookerId, now.plusDays(2), now.plusDays(3));
+        restTemplate.postForEntity(itemBaseUrl + "/" + itemId + "/comment",
+                new HttpEntity<>(new CommentDto("Хорошая вещь"), createHeadersWithUserId(bookerId)),
+                CommentDtoOut.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        ItemDto item = queryCounter.assertAtMost(2, "GET /items/{id}", () -> restTemplate.exchange(
+                itemBaseUrl + "/" + itemId, HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto.class).getBody());
+
+        assertNotNull(item);
+        assertNotNull(item.getLastBooking());
+        assertEquals(1, item.getComments().size());
+    }
+
+    @Test
+    void getItemById_viewColdAndWarmStayWithinBudget() {
+        UserDto bookerDto = new UserDto(null, "View Budget Booker", "view.budget@example.com");
+        Long bookerId = Objects.requireNonNull(restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class)
+                .getBody()).getId();
+        LocalDateTime now = LocalDateTime.now();
+        approvedBooking(bookerId, now.minusDays(3), now.minusDays(2));
+        approvedBooking(bookerId, now.plusDays(2), now.plusDays(3));
+        restTemplate.postForEntity(itemBaseUrl + "/" + itemId + "/comment",
+                new HttpEntity<>(new CommentDto("Хорошая вещь"), createHeadersWithUserId(bookerId)),
+                CommentDtoOut.class);
+        HttpEntity<Void> request = new HttpEntity<>(createHeadersWithUserId(userId));
+        restTemplate.exchange(itemBaseUrl + "/" + itemId, HttpMethod.GET, request, ItemDto.class);
+
+        jdbcTemplate.update("DELETE FROM item_views WHERE item_id = ?", itemId);
+        assertItemWithinBudget(4, "GET /items/{id} без карточки", request);
+
+        itemViewService.refreshExpired();
+        jdbcTemplate.update("UPDATE item_views SET valid_until = ? WHERE item_id = ?", now.minusMinutes(1), itemId);
+        assertItemWithinBudget(4, "GET /items/{id} с устаревшей карточкой", request);
+
+        itemViewService.refreshExpired();
+        assertItemWithinBudget(1, "GET /items/{id} с готовой карточкой", request);
+    }
+
+    @Test
+    void getItemsByOwner_queryCountDoesNotGrowWithItems() {
+        UserDto bookerDto = new UserDto(null, "List Booker", "list.booker@example.com");
+        Long bookerId = Objects.requireNonNull(restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class)
+                .getBody()).getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        queryCounter.assertConstant("GET /items", () -> restTemplate.exchange(itemBaseUrl, HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto[].class), () -> {
+                    for (int i = 2; i <= 6; i++) {
+                        ItemDto itemDto = new ItemDto(null, "Item " + i, "Description for Item " + i, true,
+                                null, null, null, null, null);
+                        itemId = Objects.requireNonNull(restTemplate.postForEntity(itemBaseUrl,
+                                new HttpEntity<>(itemDto, createHeadersWithUserId(userId)), ItemDto.class)
+                                .getBody()).getId();
+                        approvedBooking(bookerId, now.minusDays(i + 1), now.minusDays(i));
+                        approvedBooking(bookerId, now.plusDays(i), now.plusDays(i).plusHours(1));
+                        restTemplate.postForEntity(itemBaseUrl + "/" + itemId + "/comment",
+                                new HttpEntity<>(new CommentDto("Комментарий " + i), createHeadersWithUserId(bookerId)),
+                                CommentDtoOut.class);
+                    }
+                });
+    }
+
+    @Test
+    void itemRequests_queryCountDoesNotGrowWithRequests() {
+        UserDto requesterDto = new UserDto(null, "Requester", "requester@example.com");
+        Long requesterId = Objects.requireNonNull(restTemplate.postForEntity(userBaseUrl, requesterDto, UserDto.class)
+                .getBody()).getId();
+        String requestBaseUrl = itemBaseUrl.replace("/items", "/requests");
+        Long firstRequestId = createRequestWithAnswer(requestBaseUrl, requesterId, 1);
+
+        queryCounter.assertConstant("GET /requests/all", () -> restTemplate.exchange(requestBaseUrl + "/all",
+                HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(userId)), ItemRequestDto[].class), () -> {
+                    for (int i = 2; i <= 6; i++) {
+                        createRequestWithAnswer(requestBaseUrl, requesterId, i);
+                    }
+                });
+        queryCounter.assertConstant("GET /requests", () -> restTemplate.exchange(requestBaseUrl,
+                HttpMethod.GET, new HttpEntity<>(createHeadersWithUserId(requesterId)), ItemRequestDto[].class),
+                () -> createRequestWithAnswer(requestBaseUrl, requesterId, 7));
+
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        ItemRequestDto request = queryCounter.assertAtMost(3, "GET /requests/{id}", () -> restTemplate.exchange(
+                requestBaseUrl + "/" + firstRequestId, HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemRequestDto.class).getBody());
+        assertNotNull(request);
+        assertEquals(1, request.getItems().size());
+        assertEquals("Answer 1", request.getItems().get(0).getName());
+    }
+
+    @Test
+    void secondLevelCache_invalidatedOnUpdateAndOwnerDelete() {
+        HttpEntity<Void> request = new HttpEntity<>(createHeadersWithUserId(userId));
+        restTemplate.exchange(itemBaseUrl + "/" + itemId, HttpMethod.GET, request, ItemDto.class);
+
+        ItemDto updateDto = new ItemDto();
+        updateDto.setName("Cached Item");
+        restTemplate.exchange(itemBaseUrl + "/" + itemId, HttpMethod.PATCH,
+                new HttpEntity<>(updateDto, createHeadersWithUserId(userId)), ItemDto.class);
+
+        ItemDto item = restTemplate.exchange(itemBaseUrl + "/" + itemId, HttpMethod.GET, request, ItemDto.class)
+                .getBody();
+        assertNotNull(item);
+        assertEquals("Cached Item", item.getName());
+
+        restTemplate.delete(userBaseUrl + "/" + userId);
+
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        ResponseEntity<String> response = restTemplate.exchange(
+                itemBaseUrl + "/" + itemId + "/free-slots?from=" + from + "&to=" + from.plusDays(1),
+                HttpMethod.GET, request, String.class);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
+    @Test
+    void itemView_followsBookingEventsAndExpiry() {
+        UserDto bookerDto = new UserDto(null, "View Booker", "view.booker@example.com");
+        ResponseEntity<UserDto> bookerResponse = restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class);
+        Long bookerId = Objects.requireNonNull(bookerResponse.getBody()).getId();
+
+        LocalDateTime now = LocalDateTime.now();
+        Long nextId = approvedBooking(bookerId, now.plusDays(2), now.plusDays(3));
+
+        LocalDateTime validUntil = jdbcTemplate.queryForObject(
+                "SELECT valid_until FROM item_views WHERE item_id = ?", LocalDateTime.class, itemId);
+        assertNotNull(validUntil);
+        assertTrue(validUntil.isAfter(now.plusDays(1)));
+
+        jdbcTemplate.update("UPDATE item_views SET next_booking = NULL, valid_until = ? WHERE item_id = ?",
+                now.minusMinutes(1), itemId);
+        itemViewService.refreshExpired();
+
+        ItemDto item = restTemplate.exchange(itemBaseUrl + "/" + itemId, HttpMethod.GET,
+                new HttpEntity<>(createHeadersWithUserId(userId)), ItemDto.class).getBody();
+        assertNotNull(item);
+        assertEquals(nextId, item.getNextBooking().getId());
+        assertEquals(itemId, item.getNextBooking().getItem().getId());
+        assertEquals(0, item.getCommentCount());
+    }
+
+    @Test
+    void itemView_builtOnReadWithoutWritingAndMaterializedBySchedule() {
+        HttpEntity<Void> request = new HttpEntity<>(createHeadersWithUserId(userId));
+        List<ResponseEntity<ItemDto>> responses = IntStream.range(0, 4).parallel()
+                .mapToObj(i -> restTemplate.exchange(itemBaseUrl + "/" + itemId, HttpMethod.GET, request,
+                        ItemDto.class))
+                .toList();
+
+        responses.forEach(response -> assertEquals(HttpStatus.OK, response.getStatusCode()));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_views WHERE item_id = ?",
+                Integer.class, itemId));
+
+        itemViewService.refreshExpired();
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_views WHERE item_id = ?",
+                Integer.class, itemId));
+    }
+
+    @Test
+    void itemView_expiredByBookerUpdateOnlyAfterCommit() {
+        UserDto bookerDto = new UserDto(null, "Renamed Booker", "renamed.booker@example.com");
+        Long bookerId = Objects.requireNonNull(restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class)
+                .getBody()).getId();
+        LocalDateTime now = LocalDateTime.now();
+        approvedBooking(bookerId, now.plusDays(2), now.plusDays(3));
+        String validUntil = "SELECT valid_until FROM item_views WHERE item_id = ?";
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            userService.updateUser(bookerId, new UserDto(null, "New Name", null));
+            assertTrue(jdbcTemplate.queryForObject(validUntil, LocalDateTime.class, itemId)
+                    .isAfter(LocalDateTime.now()));
+        });
+
+        assertFalse(jdbcTemplate.queryForObject(validUntil, LocalDateTime.class, itemId)
+                .isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void itemView_concurrentRefreshesOfNewItem_upserted() {
+        IntStream.range(0, 8).parallel()
+                .forEach(i -> itemViewService.onCommentCreated(new CommentCreatedEvent(itemId, userId)));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM item_views WHERE item_id = ?",
+                Integer.class, itemId));
+    }
+
+    @Test
+    void getItemById_conditionalGetFollowsItemAndViewChanges() {
+        ResponseEntity<String> first = getItemIfNoneMatch(null);
+        String etag = first.getHeaders().getETag();
+        assertEquals(HttpStatus.OK, first.getStatusCode());
+        assertNotNull(etag);
+        assertTrue(first.getHeaders().getLastModified() > 0);
+
+        ResponseEntity<String> notModified = getItemIfNoneMatch(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertNull(notModified.getBody());
+        assertEquals(etag, notModified.getHeaders().getETag());
+
+        restTemplate.exchange(itemBaseUrl + "/" + itemId, HttpMethod.PATCH,
+                new HttpEntity<>(new ItemDto(null, "Renamed", null, null, null, null, null, null, null),
+                        createHeadersWithUserId(userId)), ItemDto.class);
+        ResponseEntity<String> renamed = getItemIfNoneMatch(etag);
+        assertEquals(HttpStatus.OK, renamed.getStatusCode());
+        assertNotEquals(etag, renamed.getHeaders().getETag());
+
+        UserDto bookerDto = new UserDto(null, "Etag Booker", "etag.booker@example.com");
+        Long bookerId = Objects.requireNonNull(restTemplate.postForEntity(userBaseUrl, bookerDto, UserDto.class)
+                .getBody()).getId();
+        String renamedEtag = renamed.getHeaders().getETag();
+        approvedBooking(bookerId, LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2));
+        ResponseEntity<String> booked = getItemIfNoneMatch(renamedEtag);
+        assertEquals(HttpStatus.OK, booked.getStatusCode());
+        assertNotEquals(renamedEtag, booked.getHeaders().getETag());
+        assertEquals(HttpStatus.NOT_MODIFIED, getItemIfNoneMatch(booked.getHeaders().getETag()).getStatusCode());
+    }
+
+    private ResponseEntity<String> getItemIfNoneMatch(String etag) {
+        HttpHeaders headers = createHeadersWithUserId(userId);
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        return restTemplate.exchange(itemBaseUrl + "/" + itemId, HttpMethod.GET, new HttpEntity<>(headers), String.class);
+    }
+
+    private void assertItemWithinBudget(long budget, String label, HttpEntity<Void> request) {
+        ItemDto item = queryCounter.assertAtMost(budget, label, () -> restTemplate.exchange(
+                itemBaseUrl + "/" + itemId, HttpMethod.GET, request, ItemDto.class).getBody());
+
+        assertNotNull(item);
+        assertNotNull(item.getLastBooking());
+        assertNotNull(item.getNextBooking());
+        assertEquals(1, item.getComments().size());
+    }
+
+    private Long approvedBooking(Long bookerId, LocalDateTime start, LocalDateTime end) {
+        ResponseEntity<BookingDtoOut> bookingResponse = restTemplate.postForEntity(
+                bookingBaseUrl,
+                new HttpEntity<>(new BookingDto(itemId, start, end), createHeadersWithUserId(bookerId)),
+                BookingDtoOut.class);
+        Long id = Objects.requireNonNull(bookingResponse.getBody()).getId();
+        restTemplate.exchange(bookingBaseUrl + "/" + id + "?approved=true", HttpMethod.PATCH,
+                new HttpEntity<>(createHeadersWithUserId(userId)), BookingDtoOut.class);
+        return id;
+    }
+
     @Test
     void createComment_success() {
         UserDto bookerDto = new UserDto(null, "Alex Booker", "alex.booker@example.com");
@@ -286,6 +848,17 @@ class ItemControllerIntegrationTest {
         assertTrue(Objects.requireNonNull(response.getBody()).contains("должно быть хотя бы одно бронирование"));
     }
 
+    private Long createRequestWithAnswer(String requestBaseUrl, Long requesterId, int number) {
+        ItemRequestDto requestDto = new ItemRequestDto(null, "Нужна вещь " + number, null, null);
+        Long requestId = Objects.requireNonNull(restTemplate.postForEntity(requestBaseUrl,
+                new HttpEntity<>(requestDto, createHeadersWithUserId(requesterId)), ItemRequestDto.class)
+                .getBody()).getId();
+        ItemDto answer = new ItemDto(null, "Answer " + number, "Answer for request " + number, true,
+                null, null, null, null, requestId);
+        restTemplate.postForEntity(itemBaseUrl, new HttpEntity<>(answer, createHeadersWithUserId(userId)), ItemDto.class);
+        return requestId;
+    }
+
     private HttpHeaders createHeadersWithUserId(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.set("X-Sharer-User-Id", String.valueOf(userId));
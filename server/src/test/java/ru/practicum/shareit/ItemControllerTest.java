@@ -7,21 +7,30 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentDtoOut;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.version.ResourceVersion;
+import ru.practicum.shareit.version.Versioned;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
@@ -76,37 +85,56 @@ class ItemControllerTest {
 
     @Test
     void getItemById_success() {
-        when(itemService.getItemById(anyLong())).thenReturn(itemDto);
+        when(itemService.getVersionedItem(1L))
+                .thenReturn(new Versioned<>(new ResourceVersion("i-0", LocalDateTime.now()), () -> itemDto));
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
 
-        ResponseEntity<ItemDto> response = itemController.getItem(1L, 1L);
+        ResponseEntity<ItemDto> response = itemController.getItem(1L, 1L,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/items/1"), servletResponse));
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(itemDto, response.getBody());
-        verify(itemService, times(1)).getItemById(1L);
+        assertEquals("\"i-0\"", servletResponse.getHeader(HttpHeaders.ETAG));
+        verify(itemService, times(1)).getVersionedItem(1L);
+    }
+
+    @Test
+    void getItemById_notModified_skipsDto() {
+        when(itemService.getVersionedItem(1L)).thenReturn(new Versioned<>(new ResourceVersion("i-0", LocalDateTime.now()),
+                () -> fail("DTO не должен строиться для 304")));
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/items/1");
+        servletRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"i-0\"");
+        MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+
+        ResponseEntity<ItemDto> response = itemController.getItem(1L, 1L,
+                new ServletWebRequest(servletRequest, servletResponse));
+
+        assertNull(response);
+        assertEquals(HttpStatus.NOT_MODIFIED.value(), servletResponse.getStatus());
     }
 
     @Test
     void getItemsByOwner_success() {
         List<ItemDto> items = Collections.singletonList(itemDto);
-        when(itemService.getItemsByOwner(anyLong())).thenReturn(items);
+        when(itemService.getItemsByOwner(anyLong(), anyInt(), anyInt(), any())).thenReturn(items);
 
-        ResponseEntity<List<ItemDto>> response = itemController.getItemsBuOwner(1L);
+        ResponseEntity<List<ItemDto>> response = itemController.getItemsBuOwner(1L, 0, 10, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(items, response.getBody());
-        verify(itemService, times(1)).getItemsByOwner(1L);
+        verify(itemService, times(1)).getItemsByOwner(1L, 0, 10, null);
     }
 
     @Test
     void searchItems_success() {
         List<ItemDto> items = Collections.singletonList(itemDto);
-        when(itemService.searchItems(anyString())).thenReturn(items);
+        when(itemService.searchItems(anyString(), anyInt(), anyInt())).thenReturn(items);
 
-        ResponseEntity<List<ItemDto>> response = itemController.searchItems("text", 1L);
+        ResponseEntity<List<ItemDto>> response = itemController.searchItems("text", false, null, null, 0, 10, 1L);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(items, response.getBody());
-        verify(itemService, times(1)).searchItems("text");
+        verify(itemService, times(1)).searchItems("text", 0, 10);
     }
 
 
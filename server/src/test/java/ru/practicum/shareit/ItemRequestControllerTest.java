@@ -15,6 +15,8 @@ import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
@@ -47,6 +49,9 @@ class ItemRequestControllerTest {
     @Autowired
     private ItemRequestRepository requestRepository;
 
+    @Autowired
+    private ItemRepository itemRepository;
+
     private User user;
     private ItemRequest request;
 
@@ -126,6 +131,25 @@ class ItemRequestControllerTest {
         assertEquals(request.getDescription(), response.getBody().getDescription());
     }
 
+    @Test
+    void getItem_conditionalGetFollowsAnswers() {
+        String url = baseUrl + "/" + request.getId();
+        ResponseEntity<String> first = restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(createHeaders(user.getId())), String.class);
+        String etag = first.getHeaders().getETag();
+        assertNotNull(etag);
+
+        HttpHeaders conditional = createHeaders(user.getId());
+        conditional.setIfNoneMatch(etag);
+        assertEquals(HttpStatus.NOT_MODIFIED,
+                restTemplate.exchange(url, HttpMethod.GET, new HttpEntity<>(conditional), String.class).getStatusCode());
+
+        itemRepository.save(new Item(null, "Ответ", "Вещь по запросу", true, user, request));
+        ResponseEntity<String> answered = restTemplate.exchange(url, HttpMethod.GET,
+                new HttpEntity<>(conditional), String.class);
+        assertEquals(HttpStatus.OK, answered.getStatusCode());
+        assertNotEquals(etag, answered.getHeaders().getETag());
+    }
 
     private HttpHeaders createHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
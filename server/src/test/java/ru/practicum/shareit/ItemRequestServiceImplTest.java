@@ -9,6 +9,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.request.ItemRequest;
 import ru.practicum.shareit.request.ItemRequestRepository;
 import ru.practicum.shareit.request.ItemRequestServiceImpl;
@@ -19,6 +21,7 @@ import ru.practicum.shareit.user.UserRepository;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -35,6 +38,9 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRequestRepository requestRepository;
 
+    @Mock
+    private ItemRepository itemRepository;
+
     @InjectMocks
     private ItemRequestServiceImpl requestService;
 
@@ -88,11 +94,16 @@ class ItemRequestServiceImplTest {
     void getRequestById_success() {
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(requestRepository.findById(anyLong())).thenReturn(Optional.of(request));
+        when(itemRepository.findByRequestIds(List.of(1L))).thenReturn(List.of(
+                new Item(2L, "Drill", "Cordless drill", true, new User(2L, "Owner", "owner@example.com"), request)));
 
         ItemRequestDto result = requestService.getRequestById(1L, 1L);
 
         assertNotNull(result);
         assertEquals(request.getDescription(), result.getDescription());
+        assertEquals(1, result.getItems().size());
+        assertEquals(2L, result.getItems().get(0).getId());
+        assertEquals(1L, result.getItems().get(0).getRequestId());
     }
 
     @Test
@@ -0,0 +1,142 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemSearchIndex searchIndex;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ItemSearchIndex(itemRepository, 100, 0.5);
+        owner = new User(1L, "Owner", "owner@email.com");
+    }
+
+    @Test
+    void rebuild_loadsItemsFromRepository() {
+        when(itemRepository.findAllWithRequest(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(
+                new Item(1L, "Дрель", "Аккумуляторная дрель", true, owner, null))));
+
+        searchIndex.rebuild();
+
+        List<ItemDto> result = searchIndex.search("дрель", 0, 10);
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+    }
+
+    @Test
+    void search_matchesPrefixAndSkipsUnavailable() {
+        searchIndex.index(new Item(1L, "Дрель", "Простая дрель", true, owner, null));
+        searchIndex.index(new Item(2L, "Отвертка", "Аккумуляторная отвертка", true, owner, null));
+        searchIndex.index(new Item(3L, "Дрель ударная", "Сломана", false, owner, null));
+
+        List<ItemDto> result = searchIndex.search("ДРЕЛ", 0, 10);
+
+        assertEquals(1, result.size());
+        assertEquals("Дрель", result.get(0).getName());
+    }
+
+    @Test
+    void search_ranksNameMatchesAboveDescription() {
+        searchIndex.index(new Item(1L, "Набор", "Отвертка и ключи", true, owner, null));
+        searchIndex.index(new Item(2L, "Отвертка", "Крестовая", true, owner, null));
+
+        List<ItemDto> result = searchIndex.search("отвертка", 0, 10);
+
+        assertEquals(List.of(2L, 1L), result.stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void search_requiresAllTermsAndPaginates() {
+        for (long id = 1; id <= 5; id++) {
+            searchIndex.index(new Item(id, "Стол " + id, "Деревянный стол", true, owner, null));
+        }
+        searchIndex.index(new Item(6L, "Стул", "Деревянный стул", true, owner, null));
+
+        assertEquals(5, searchIndex.search("деревянный стол", 0, 10).size());
+        List<ItemDto> page = searchIndex.search("деревянный стол", 2, 2);
+        assertEquals(List.of(3L, 4L), page.stream().map(ItemDto::getId).toList());
+    }
+
+    @Test
+    void fuzzySearch_toleratesTypos() {
+        searchIndex.index(new Item(1L, "Дрель", "Аккумуляторная", true, owner, null));
+        searchIndex.index(new Item(2L, "Дрель ударная", "Сетевая", false, owner, null));
+        searchIndex.index(new Item(3L, "Пила", "Дисковая", true, owner, null));
+
+        List<ItemDto> result = searchIndex.fuzzySearch("дрел", 0, 10);
+
+        assertEquals(List.of(1L), result.stream().map(ItemDto::getId).toList());
+        assertTrue(searchIndex.fuzzySearch("молоток", 0, 10).isEmpty());
+    }
+
+    @Test
+    void suggest_returnsAvailableNamesByWordPrefix() {
+        searchIndex.index(new Item(1L, "Аккумуляторная дрель", "Makita", true, owner, null));
+        searchIndex.index(new Item(2L, "Дрель", "Bosch", true, owner, null));
+        searchIndex.index(new Item(3L, "Дрель", "Интерскол", true, owner, null));
+        searchIndex.index(new Item(4L, "Дрезина", "Ручная", false, owner, null));
+        searchIndex.index(new Item(5L, "Молоток", "Слесарный", true, owner, null));
+
+        assertEquals(List.of("Аккумуляторная дрель", "Дрель"), searchIndex.suggest("ДР", 10));
+        assertEquals(List.of("Аккумуляторная дрель"), searchIndex.suggest("акк", 10));
+        assertEquals(1, searchIndex.suggest("др", 1).size());
+        assertTrue(searchIndex.suggest("пила", 10).isEmpty());
+    }
+
+    @Test
+    void suggest_followsRenames() {
+        Item item = new Item(1L, "Палатка", "Двухместная", true, owner, null);
+        searchIndex.index(item);
+        searchIndex.index(new Item(2L, "Пала", "Деревянная", true, owner, null));
+
+        item.setName("Тент");
+        searchIndex.index(item);
+
+        assertEquals(List.of("Пала"), searchIndex.suggest("пал", 10));
+        assertEquals(List.of("Тент"), searchIndex.suggest("те", 10));
+    }
+
+    @Test
+    void index_updateReplacesPreviousTerms() {
+        Item item = new Item(1L, "Лопата", "Штыковая", true, owner, null);
+        searchIndex.index(item);
+
+        item.setName("Грабли");
+        searchIndex.index(item);
+
+        assertTrue(searchIndex.search("лопата", 0, 10).isEmpty());
+        assertEquals(1, searchIndex.search("грабли", 0, 10).size());
+    }
+
+    @Test
+    void removeByOwner_dropsOwnerItems() {
+        searchIndex.index(new Item(1L, "Палатка", "Двухместная", true, owner, null));
+
+        searchIndex.removeByOwner(owner.getId());
+
+        assertTrue(searchIndex.search("палатка", 0, 10).isEmpty());
+    }
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+final class LocalPostgres {
+    static final String URL = System.getProperty("shareit.test.postgres.url",
+            "jdbc:postgresql://localhost:6541/shareit");
+    static final String REPLICA_URL = System.getProperty("shareit.test.postgres.replica-url",
+            "jdbc:postgresql://localhost:6542/shareit");
+    static final String USERNAME = System.getProperty("shareit.test.postgres.username", "shareit");
+    static final String PASSWORD = System.getProperty("shareit.test.postgres.password", "shareit");
+
+    private LocalPostgres() {
+    }
+
+    static boolean available() {
+        DriverManager.setLoginTimeout(2);
+        try (Connection ignored = DriverManager.getConnection(URL, USERNAME, PASSWORD)) {
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    static boolean replicaAvailable() {
+        if (!available()) {
+            return false;
+        }
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, USERNAME, PASSWORD);
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT pg_is_in_recovery()")) {
+            return resultSet.next() && resultSet.getBoolean(1);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+}
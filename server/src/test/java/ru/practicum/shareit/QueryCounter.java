@@ -0,0 +1,62 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class QueryCounter {
+    private final SessionFactory sessionFactory;
+    private final Statistics statistics;
+
+    QueryCounter(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.statistics = sessionFactory.getStatistics();
+    }
+
+    <T> Measured<T> measure(Supplier<T> action) {
+        statistics.clear();
+        T result = action.get();
+        return new Measured<>(result, statistics.getPrepareStatementCount(), Arrays.toString(statistics.getQueries()));
+    }
+
+    <T> T assertAtMost(long budget, String label, Supplier<T> action) {
+        Measured<T> measured = measure(action);
+        assertTrue(measured.statements() <= budget, () -> label + ": выполнено " + measured.statements()
+                + " SQL-запросов при бюджете " + budget + ", запросы: " + measured.queries());
+        return measured.result();
+    }
+
+    <T> T assertExactly(long expected, String label, Supplier<T> action) {
+        Measured<T> measured = measure(action);
+        assertEquals(expected, measured.statements(), () -> label + ": неожиданное число SQL-запросов, запросы: "
+                + measured.queries());
+        return measured.result();
+    }
+
+    void assertConstant(String label, Supplier<?> action, Runnable grow) {
+        long before = measureCold(action).statements();
+        grow.run();
+        Measured<?> after = measureCold(action);
+        assertEquals(before, after.statements(), () -> label + ": число SQL-запросов растет вместе с данными, запросы: "
+                + after.queries());
+    }
+
+    private <T> Measured<T> measureCold(Supplier<T> action) {
+        action.get();
+        sessionFactory.getCache().evictAllRegions();
+        return measure(action);
+    }
+
+    Statistics statistics() {
+        return statistics;
+    }
+
+    record Measured<T>(T result, long statements, String queries) {
+    }
+}
@@ -0,0 +1,177 @@
+package ru.practicum.shareit;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.booking.BookingFilter;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItApp.class)
+@EnabledIf("ru.practicum.shareit.LocalPostgres#available")
+class QueryPlanTest {
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private static final List<String> SAMPLE_DATA = List.of(
+            "INSERT INTO users (id, name, email) " +
+                    "SELECT 1000000 + g, 'User ' || g, 'plan' || g || '@example.com' FROM generate_series(1, 2000) g",
+            "INSERT INTO item_requests (id, user_id, description, created) " +
+                    "SELECT 1000000 + g, 1000000 + 1 + g % 2000, 'Request ' || g, now() - g * interval '1 hour' " +
+                    "FROM generate_series(1, 5000) g",
+            "INSERT INTO items (id, name, description, available, owner_id, request_id) " +
+                    "SELECT 1000000 + g, (ARRAY['Дрель', 'Пила', 'Палатка', 'Лестница', 'Шуруповерт'])[1 + g % 5] " +
+                    "|| ' ' || g, 'Описание вещи ' || g, g % 10 <> 0, 1000000 + 1 + g % 2000, " +
+                    "CASE WHEN g % 4 = 0 THEN 1000000 + 1 + g % 5000 END FROM generate_series(1, 20000) g",
+            "INSERT INTO bookings (item_id, booker_id, start_time, end_time, status) " +
+                    "SELECT 1000000 + 1 + g % 20000, 1000000 + 1 + (g * 7) % 2000, " +
+                    "now() - interval '400 days' + (g / 20000) * interval '3 days', " +
+                    "now() - interval '398 days' + (g / 20000) * interval '3 days', " +
+                    "(ARRAY['APPROVED', 'APPROVED', 'APPROVED', 'REJECTED', 'WAITING'])[1 + g % 5] " +
+                    "FROM generate_series(0, 199999) g",
+            "INSERT INTO comments (text, created, item_id, author_id) " +
+                    "SELECT 'Комментарий ' || g, now() - g * interval '1 minute', 1000000 + 1 + g % 20000, " +
+                    "1000000 + 1 + g % 2000 FROM generate_series(1, 40000) g",
+            "SELECT gin_clean_pending_list('items_search_vector_idx'), gin_clean_pending_list('items_name_trgm_idx')",
+            "ANALYZE users, item_requests, items, bookings, comments"
+    );
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> LocalPostgres.URL);
+        registry.add("spring.datasource.username", () -> LocalPostgres.USERNAME);
+        registry.add("spring.datasource.password", () -> LocalPostgres.PASSWORD);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration/postgres");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                SqlCapture.class::getName);
+    }
+
+    private Connection connection;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+
+        String url = LocalPostgres.URL + (LocalPostgres.URL.contains("?") ? "&" : "?") + "preferQueryMode=simple";
+        connection = DriverManager.getConnection(url, LocalPostgres.USERNAME, LocalPostgres.PASSWORD);
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : SAMPLE_DATA) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    @AfterEach
+    void tearDown() throws SQLException {
+        connection.rollback();
+        connection.close();
+    }
+
+    @Test
+    void bookingRepository_queriesUseIndexes() {
+        assertUsesIndex(() -> bookingRepository.findByItemIdAndStatusInAndEndIsAfter(1L, BookingStatus.ACTIVE, now),
+                "bookings_item_status_start_idx", "bookings_item_period_idx");
+        assertUsesIndex(() -> bookingRepository.findByBookerIdAndEndIsBefore(1L, now),
+                "bookings_booker_start_idx");
+        assertUsesIndex(() -> bookingRepository.findBusyItemIds(List.of(1L, 2L), now, now.plusDays(1),
+                BookingStatus.ACTIVE), "bookings_item_period_idx", "bookings_item_status_start_idx");
+        assertUsesIndex(() -> bookingRepository.findLastAndNextBookings(List.of(1L, 2L), now),
+                "bookings_item_status_start_idx");
+        assertUsesIndex(() -> bookingRepository.findBookings(new BookingFilter(1L, null, BookingState.ALL,
+                now, null, null, 0, 10)), "bookings_booker_start_idx");
+        assertUsesIndex(() -> bookingRepository.findBookings(new BookingFilter(null, 1L, BookingState.FUTURE,
+                now, null, null, 0, 10)), "items_owner_id_idx");
+    }
+
+    @Test
+    void itemRepository_queriesUseIndexes() {
+        assertUsesIndex(() -> itemRepository.findByOwnerIdAndIdGreaterThan(1L, 0L,
+                PageRequest.of(0, 10, Sort.by("id"))), "items_owner_id_idx");
+        assertUsesIndex(() -> itemRepository.findByRequestIds(List.of(1L, 2L)), "items_request_idx");
+        assertUsesIndex(() -> itemRepository.searchItemsByFullText("дрель", 0, 10),
+                "items_search_vector_idx");
+        assertUsesIndex(() -> itemRepository.searchFreeItemsByFullText("дрель", now, now.plusDays(1), 0, 10),
+                "items_search_vector_idx");
+        assertUsesIndex(() -> itemRepository.searchItemsBySimilarity("дрель", 0, 10), "items_name_trgm_idx");
+    }
+
+    private void assertUsesIndex(Runnable query, String... indexes) {
+        SqlCapture.STATEMENTS.clear();
+        query.run();
+        String sql = SqlCapture.STATEMENTS.get(SqlCapture.STATEMENTS.size() - 1);
+        String plan = explain(sql);
+
+        assertTrue(Arrays.stream(indexes).anyMatch(plan::contains),
+                () -> "Ожидался один из индексов " + Arrays.toString(indexes) + " в плане:\n" + plan);
+        assertFalse(plan.contains("Seq Scan"), () -> "Полный просмотр таблицы в плане:\n" + plan);
+    }
+
+    private String explain(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numbered)) {
+            StringBuilder plan = new StringBuilder();
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+            return plan.toString();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Не удалось получить план запроса:\n" + sql, e);
+        }
+    }
+
+    public static class SqlCapture implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.datasource.ReadYourWritesTracker;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = ShareItApp.class)
+@EnabledIf("ru.practicum.shareit.LocalPostgres#replicaAvailable")
+class ReplicaRoutingTest {
+    private static final long MAX_LAG_MS = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @Autowired
+    private ReadYourWritesTracker tracker;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> LocalPostgres.URL);
+        registry.add("spring.datasource.username", () -> LocalPostgres.USERNAME);
+        registry.add("spring.datasource.password", () -> LocalPostgres.PASSWORD);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.flyway.locations", () -> "classpath:db/migration/postgres");
+        registry.add("shareit.datasource.replica.urls", () -> LocalPostgres.REPLICA_URL);
+        registry.add("shareit.datasource.replica.max-lag", () -> MAX_LAG_MS + "ms");
+        registry.add("shareit.datasource.replica.lag-check-interval", () -> "3600000");
+    }
+
+    @AfterEach
+    void tearDown() {
+        tracker.clear();
+        jdbcTemplate.update("DELETE FROM users WHERE email LIKE 'replica-routing-%'");
+    }
+
+    @Test
+    void readOnlyTransactions_goToReplica() {
+        routingDataSource.checkReplicationLag();
+
+        assertTrue(readsFromReplica());
+        assertFalse(inTransaction(false));
+        assertFalse(jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class));
+    }
+
+    @Test
+    void writer_readsFromPrimaryWithinStickyWindow() {
+        routingDataSource.checkReplicationLag();
+
+        tracker.bind(-1L);
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> saveUser());
+        assertFalse(readsFromReplica());
+
+        tracker.bind(-2L);
+        assertTrue(readsFromReplica());
+
+        tracker.bind(-3L);
+        TransactionTemplate rollback = new TransactionTemplate(transactionManager);
+        rollback.executeWithoutResult(status -> {
+            saveUser();
+            status.setRollbackOnly();
+        });
+        assertTrue(readsFromReplica());
+    }
+
+    @Test
+    void readWriteTransactionWithoutWrites_doesNotPinToPrimary() {
+        routingDataSource.checkReplicationLag();
+
+        tracker.bind(-4L);
+        assertFalse(inTransaction(false));
+        assertTrue(readsFromReplica());
+    }
+
+    @Test
+    void laggingReplica_readsFallBackToPrimary() throws Exception {
+        try (Connection replica = DriverManager.getConnection(LocalPostgres.REPLICA_URL,
+                LocalPostgres.USERNAME, LocalPostgres.PASSWORD)) {
+            execute(replica, "SELECT pg_wal_replay_pause()");
+            try {
+                jdbcTemplate.queryForObject("SELECT txid_current()", Long.class);
+                Thread.sleep(MAX_LAG_MS * 2);
+                routingDataSource.checkReplicationLag();
+
+                assertTrue(routingDataSource.replicationLag().values().iterator().next() > MAX_LAG_MS);
+                assertFalse(readsFromReplica());
+            } finally {
+                execute(replica, "SELECT pg_wal_replay_resume()");
+            }
+        }
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        do {
+            Thread.sleep(100);
+            routingDataSource.checkReplicationLag();
+        } while (routingDataSource.replicationLag().values().iterator().next() > MAX_LAG_MS
+                && System.currentTimeMillis() < deadline);
+        assertTrue(readsFromReplica());
+    }
+
+    private void saveUser() {
+        userRepository.saveAndFlush(new User(null, "Replica Routing",
+                "replica-routing-" + System.nanoTime() + "@example.com"));
+    }
+
+    private boolean readsFromReplica() {
+        return inTransaction(true);
+    }
+
+    private boolean inTransaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return Boolean.TRUE.equals(template.execute(status ->
+                jdbcTemplate.queryForObject("SELECT pg_is_in_recovery()", Boolean.class)));
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingDtoOut;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.cache.ResultCache;
+import ru.practicum.shareit.item.ItemChangedEvent;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mapper.ItemMapper;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultCacheTest {
+    private final ResultCache resultCache = new ResultCache(100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void itemUpdate_invalidatesOnlyBookersOfThatItem() {
+        resultCache.getBookerBookings(1L, () -> load(1L, 10L), "ALL");
+        resultCache.getBookerBookings(2L, () -> load(2L, 20L), "ALL");
+
+        resultCache.onItemChanged(new ItemChangedEvent(10L, 100L, false));
+        resultCache.getBookerBookings(1L, () -> load(1L, 10L), "ALL");
+        resultCache.getBookerBookings(2L, () -> load(2L, 20L), "ALL");
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void itemUpdateDuringLoad_resultNotCached() {
+        resultCache.getBookerBookings(1L, () -> {
+            resultCache.onItemChanged(new ItemChangedEvent(10L, 100L, false));
+            return load(1L, 10L);
+        }, "ALL");
+        resultCache.getBookerBookings(1L, () -> load(1L, 10L), "ALL");
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void cachedResults_areNotSharedBetweenCallers() {
+        List<BookingDtoOut> first = resultCache.getBookerBookings(1L, () -> load(1L, 10L), "ALL");
+        first.get(0).getItem().setName("Изменено");
+
+        List<BookingDtoOut> second = resultCache.getBookerBookings(1L, () -> load(1L, 10L), "ALL");
+        second.get(0).setStatus(BookingStatus.REJECTED);
+        List<BookingDtoOut> third = resultCache.getBookerBookings(1L, () -> load(1L, 10L), "ALL");
+
+        assertEquals(1, loads.get());
+        assertEquals("Дрель", third.get(0).getItem().getName());
+        assertEquals(BookingStatus.WAITING, third.get(0).getStatus());
+    }
+
+    @Test
+    void ownerItems_copiedOnRead() {
+        ItemDto item = new ItemDto(10L, "Дрель", "Ударная", true, null, null, null, 0, null);
+        resultCache.get(ResultCache.Scope.OWNER_ITEMS, 100L, () -> List.of(item), ItemMapper::copy, 0, 10)
+                .get(0).setAvailable(false);
+
+        List<ItemDto> cached = resultCache.get(ResultCache.Scope.OWNER_ITEMS, 100L,
+                () -> List.of(item), ItemMapper::copy, 0, 10);
+
+        assertTrue(cached.get(0).getAvailable());
+    }
+
+    private List<BookingDtoOut> load(Long bookerId, Long itemId) {
+        loads.incrementAndGet();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return List.of(new BookingDtoOut(itemId * 10,
+                new ItemDto(itemId, "Дрель", "Ударная", true, null, null, null, null, null),
+                start, start.plusDays(1), new UserDto(bookerId, "Booker", "booker@email.com"),
+                BookingStatus.WAITING));
+    }
+}
@@ -9,11 +9,17 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.user.UserController;
 import ru.practicum.shareit.user.UserService;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.version.ResourceVersion;
+import ru.practicum.shareit.version.Versioned;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -68,26 +74,27 @@ class UserControllerTest {
 
     @Test
     void getUserById_success() {
-        when(userService.getUserById(1L)).thenReturn(userDto);
+        when(userService.getVersionedUser(1L))
+                .thenReturn(new Versioned<>(new ResourceVersion("u-0", LocalDateTime.now()), () -> userDto));
 
-        ResponseEntity<UserDto> response = userController.getUserById(1L);
+        ResponseEntity<UserDto> response = userController.getUserById(1L, webRequest());
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(userDto, response.getBody());
-        verify(userService, times(1)).getUserById(1L);
+        verify(userService, times(1)).getVersionedUser(1L);
     }
 
     @Test
     void getUserById_notFound_throwsNotFoundException() {
-        when(userService.getUserById(anyLong()))
+        when(userService.getVersionedUser(anyLong()))
                 .thenThrow(new NotFoundException("Пользователь не найден"));
 
         NotFoundException exception = assertThrows(NotFoundException.class, () -> {
-            userController.getUserById(999L);
+            userController.getUserById(999L, webRequest());
         });
 
         assertEquals("Пользователь не найден", exception.getMessage());
-        verify(userService, times(1)).getUserById(999L);
+        verify(userService, times(1)).getVersionedUser(999L);
     }
 
     @Test
@@ -151,4 +158,8 @@ class UserControllerTest {
         assertEquals(0, response.getBody().size());
         verify(userService, times(1)).getAllUsers();
     }
-}
\ No newline at end of file
+
+    private static ServletWebRequest webRequest() {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", "/users/1"), new MockHttpServletResponse());
+    }
+}